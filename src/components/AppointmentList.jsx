@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import api from '../utils/api';
+import { getAllPages } from '../utils/api';
 
 export default function AppointmentsList() {
   const [appointments, setAppointments] = useState([]);
@@ -14,7 +14,7 @@ export default function AppointmentsList() {
     try {
       setLoading(true);
       setError('');
-      const response = await api.get('/api/appointments');
+      const response = await getAllPages('/api/appointments');
       setAppointments(response.data);
     } catch (err) {
       let errorMessage = 'Failed to load appointments';
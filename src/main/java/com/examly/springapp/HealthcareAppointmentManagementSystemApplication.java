@@ -2,6 +2,7 @@ package com.examly.springapp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 // @SpringBootApplication
 // public class HealthcareAppointmentManagementSystemApplication {
@@ -12,6 +13,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 // }
 @SpringBootApplication
+@EnableScheduling
 public class HealthcareAppointmentManagementSystemApplication {
 
     public static void main(String[] args) {
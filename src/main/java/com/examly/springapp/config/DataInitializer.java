@@ -1,6 +1,7 @@
 package com.examly.springapp.config;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -13,6 +14,7 @@ import com.examly.springapp.model.Admin;
 import com.examly.springapp.repository.DoctorRepository;
 import com.examly.springapp.repository.PatientRepository;
 import com.examly.springapp.repository.AdminRepository;
+import com.examly.springapp.service.PatientService;
 
 @Component
 public class DataInitializer implements CommandLineRunner {
@@ -21,15 +23,18 @@ public class DataInitializer implements CommandLineRunner {
     private final DoctorRepository doctorRepository;
     private final AdminRepository adminRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PatientService patientService;
 
     public DataInitializer(PatientRepository patientRepository,
                           DoctorRepository doctorRepository,
                           AdminRepository adminRepository,
-                          PasswordEncoder passwordEncoder) {
+                          PasswordEncoder passwordEncoder,
+                          PatientService patientService) {
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
         this.adminRepository = adminRepository;
         this.passwordEncoder = passwordEncoder;
+        this.patientService = patientService;
     }
 
     @Override
@@ -43,7 +48,6 @@ public class DataInitializer implements CommandLineRunner {
             p1.setDateOfBirth(LocalDate.of(1990, 5, 20));
             p1.setPassword(passwordEncoder.encode("password123"));
             p1.setRole(Role.PATIENT);
-            patientRepository.save(p1);
 
             Patient p2 = new Patient();
             p2.setName("Alice Johnson");
@@ -52,7 +56,8 @@ public class DataInitializer implements CommandLineRunner {
             p2.setDateOfBirth(LocalDate.of(1985, 3, 15));
             p2.setPassword(passwordEncoder.encode("password456"));
             p2.setRole(Role.PATIENT);
-            patientRepository.save(p2);
+            // Through PatientService so the registration counters see them
+            patientService.createPatients(List.of(p1, p2));
             
             System.out.println("✅ Sample patients created");
         }
@@ -66,7 +71,6 @@ public class DataInitializer implements CommandLineRunner {
             doctor1.setSpecialization("Cardiology");
             doctor1.setPassword(passwordEncoder.encode("doctor123"));
             doctor1.setRole(Role.DOCTOR);
-            doctorRepository.save(doctor1);
 
             Doctor d2 = new Doctor();
             d2.setName("Dr. Emily");
@@ -75,7 +79,7 @@ public class DataInitializer implements CommandLineRunner {
             d2.setSpecialization("Neurology");
             d2.setPassword(passwordEncoder.encode("doctor456"));
             d2.setRole(Role.DOCTOR);
-            doctorRepository.save(d2);
+            doctorRepository.saveAll(List.of(doctor1, d2));
             
             System.out.println("✅ Sample doctors created");
         }
@@ -88,7 +92,6 @@ public class DataInitializer implements CommandLineRunner {
             admin1.setPhoneNumber("1111111111");
             admin1.setPassword(passwordEncoder.encode("admin123"));
             admin1.setRole(Role.ADMIN);
-            adminRepository.save(admin1);
 
             Admin admin2 = new Admin();
             admin2.setName("Hospital Administrator");
@@ -96,7 +99,7 @@ public class DataInitializer implements CommandLineRunner {
             admin2.setPhoneNumber("2222222222");
             admin2.setPassword(passwordEncoder.encode("hospital456"));
             admin2.setRole(Role.ADMIN);
-            adminRepository.save(admin2);
+            adminRepository.saveAll(List.of(admin1, admin2));
             
             System.out.println("✅ Sample admin users created");
             System.out.println("📧 Admin login: admin@example.com / admin123");
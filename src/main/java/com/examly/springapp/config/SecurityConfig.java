@@ -68,10 +68,18 @@ public class SecurityConfig {
                 .requestMatchers("/api/appointments/*/complete").hasAnyAuthority("ROLE_DOCTOR", "ROLE_ADMIN")
                 .requestMatchers("/api/appointments/*/status").hasAnyAuthority("ROLE_DOCTOR", "ROLE_ADMIN")
                 .requestMatchers("/api/appointments/*/cancel").hasAnyAuthority("ROLE_PATIENT", "ROLE_DOCTOR", "ROLE_ADMIN")
+                .requestMatchers("/api/appointments/holds", "/api/appointments/holds/**").hasAnyAuthority("ROLE_PATIENT", "ROLE_ADMIN")
+                .requestMatchers("/api/appointments/waitlist/my").hasAuthority("ROLE_PATIENT")
+                .requestMatchers("/api/appointments/waitlist", "/api/appointments/waitlist/**").hasAnyAuthority("ROLE_PATIENT", "ROLE_ADMIN")
                 .requestMatchers("/api/appointments/patient/**").hasAnyAuthority("ROLE_PATIENT", "ROLE_DOCTOR", "ROLE_ADMIN")
                 .requestMatchers("/api/appointments/doctor/**").hasAnyAuthority("ROLE_DOCTOR", "ROLE_ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/appointments").hasAuthority("ROLE_ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/appointments/export").hasAuthority("ROLE_ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/appointments/analytics").hasAuthority("ROLE_ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/appointments").hasAnyAuthority("ROLE_PATIENT", "ROLE_ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/appointments/bulk").hasAuthority("ROLE_ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/appointments/series").hasAnyAuthority("ROLE_PATIENT", "ROLE_ADMIN")
+                .requestMatchers("/api/appointments/series/**").hasAnyAuthority("ROLE_PATIENT", "ROLE_DOCTOR", "ROLE_ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/appointments/**").hasAuthority("ROLE_ADMIN")
                 
                 // PATIENT ENDPOINTS - FIXED
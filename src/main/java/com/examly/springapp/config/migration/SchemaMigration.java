@@ -0,0 +1,67 @@
+package com.examly.springapp.config.migration;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Base for the Java migrations. They are Spring beans, which Spring Boot hands to Flyway
+ * next to the SQL scripts in db/migration; the version comes from the class name.
+ * Databases that predate migrations were shaped by ddl-auto=update and may already have
+ * some of what a migration adds, so the checks here read the live catalog first.
+ */
+abstract class SchemaMigration extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        migrate(new JdbcTemplate(new SingleConnectionDataSource(connection, true)), connection.getMetaData());
+    }
+
+    protected abstract void migrate(JdbcTemplate jdbc, DatabaseMetaData catalog) throws SQLException;
+
+    protected static boolean hasTable(DatabaseMetaData catalog, String table) throws SQLException {
+        try (ResultSet tables = catalog.getTables(catalog.getConnection().getCatalog(), catalog.getConnection().getSchema(),
+                null, new String[] { "TABLE" })) {
+            while (tables.next()) {
+                if (table.equalsIgnoreCase(tables.getString("TABLE_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    protected static boolean hasColumn(DatabaseMetaData catalog, String table, String column) throws SQLException {
+        try (ResultSet columns = catalog.getColumns(catalog.getConnection().getCatalog(), catalog.getConnection().getSchema(),
+                table, null)) {
+            while (columns.next()) {
+                if (column.equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Unique constraints show up here too: under their own name in MySQL, as <name>_INDEX_<n> in H2
+    protected static boolean hasIndex(DatabaseMetaData catalog, String table, String index) throws SQLException {
+        String constraintIndex = (index + "_index_").toLowerCase();
+        try (ResultSet indexes = catalog.getIndexInfo(catalog.getConnection().getCatalog(), catalog.getConnection().getSchema(),
+                table, false, true)) {
+            while (indexes.next()) {
+                String name = indexes.getString("INDEX_NAME");
+                if (name != null && (index.equalsIgnoreCase(name) || name.toLowerCase().startsWith(constraintIndex))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
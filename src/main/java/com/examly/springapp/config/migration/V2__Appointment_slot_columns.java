@@ -0,0 +1,73 @@
+package com.examly.springapp.config.migration;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Brings appointment tables created before recurring series and the one-live-booking-per-slot
+ * key up to date: adds series_id, slot_active and slot_mask where they are missing, backfills
+ * slot_active, then adds uk_appointment_active_slot.
+ *
+ * Old data may hold two live bookings for one slot. The oldest keeps the slot; the others stay
+ * as they are but with slot_active NULL, so the key can be created and no booking is lost.
+ */
+@Component
+public class V2__Appointment_slot_columns extends SchemaMigration {
+
+    @Override
+    protected void migrate(JdbcTemplate jdbc, DatabaseMetaData catalog) throws SQLException {
+        if (!hasColumn(catalog, "appointment", "series_id")) {
+            jdbc.execute("ALTER TABLE appointment ADD COLUMN series_id VARCHAR(36)");
+        }
+        if (!hasColumn(catalog, "appointment", "slot_active")) {
+            jdbc.execute("ALTER TABLE appointment ADD COLUMN slot_active BOOLEAN");
+        }
+        for (String table : List.of("doctor_availability", "availability")) {
+            if (!hasColumn(catalog, table, "slot_mask")) {
+                jdbc.execute("ALTER TABLE " + table + " ADD COLUMN slot_mask VARBINARY(184)");
+            }
+        }
+
+        backfillSlotActive(jdbc);
+
+        if (!hasIndex(catalog, "appointment", "uk_appointment_active_slot")) {
+            jdbc.execute("ALTER TABLE appointment ADD CONSTRAINT uk_appointment_active_slot " +
+                    "UNIQUE (doctor_id, appointment_date, appointment_time, slot_active)");
+        }
+    }
+
+    private void backfillSlotActive(JdbcTemplate jdbc) {
+        // Cancelled and rejected appointments never hold a slot (AppointmentStatus.occupiesSlot)
+        jdbc.update("UPDATE appointment SET slot_active = NULL WHERE status IS NULL OR status IN ('CANCELLED', 'REJECTED')");
+
+        Set<List<Object>> taken = new HashSet<>();
+        jdbc.query("SELECT doctor_id, appointment_date, appointment_time FROM appointment WHERE slot_active = TRUE",
+                rs -> {
+                    taken.add(slot(rs.getLong(1), rs.getObject(2, LocalDate.class), rs.getObject(3, LocalTime.class)));
+                });
+
+        List<Object[]> activate = new ArrayList<>();
+        jdbc.query("SELECT id, doctor_id, appointment_date, appointment_time FROM appointment " +
+                "WHERE slot_active IS NULL AND status IS NOT NULL AND status NOT IN ('CANCELLED', 'REJECTED') ORDER BY id",
+                rs -> {
+                    if (taken.add(slot(rs.getLong(2), rs.getObject(3, LocalDate.class), rs.getObject(4, LocalTime.class)))) {
+                        activate.add(new Object[] { rs.getLong(1) });
+                    }
+                });
+        jdbc.batchUpdate("UPDATE appointment SET slot_active = TRUE WHERE id = ?", activate);
+    }
+
+    private static List<Object> slot(long doctorId, LocalDate date, LocalTime time) {
+        return Arrays.asList(doctorId, date, time);
+    }
+}
@@ -0,0 +1,76 @@
+package com.examly.springapp.config.migration;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.model.SlotMask;
+
+/**
+ * Conversion of the old one-row-per-slot table (availability_time_slots)
+ * into the slot_mask column of doctor_availability.
+ * Both entities mapped the legacy table through availability_id, but only DoctorAvailability
+ * was ever written (AvailabilityService and DoctorService), so its ids are the only ones the
+ * table refers to; the same ids in availability belong to unrelated rows and are not touched.
+ * Only rows whose slot_mask is still NULL are filled in; the legacy table is then
+ * renamed and kept for reference.
+ */
+@Component
+public class V3__Time_slots_to_slot_mask extends SchemaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V3__Time_slots_to_slot_mask.class);
+
+    private static final String LEGACY_TABLE = "availability_time_slots";
+    private static final String MIGRATED_TABLE = "availability_time_slots_migrated";
+
+    @Override
+    protected void migrate(JdbcTemplate jdbc, DatabaseMetaData catalog) throws SQLException {
+        if (hasTable(catalog, LEGACY_TABLE)) {
+            convertLegacySlots(jdbc);
+        }
+        // Rows without a mask offer no slots
+        for (String table : List.of("doctor_availability", "availability")) {
+            jdbc.update("UPDATE " + table + " SET slot_mask = ? WHERE slot_mask IS NULL", (Object) new byte[0]);
+        }
+    }
+
+    private void convertLegacySlots(JdbcTemplate jdbc) {
+        Map<Long, List<String>> slotsByAvailability = new LinkedHashMap<>();
+        jdbc.query("SELECT availability_id, time_slot FROM " + LEGACY_TABLE, rs -> {
+            slotsByAvailability.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getString(2));
+        });
+
+        List<Object[]> updates = new ArrayList<>();
+        slotsByAvailability.forEach((id, slots) -> {
+            List<String> valid = slots.stream().filter(slot -> SlotMask.parseMinute(slot) >= 0).toList();
+            updates.add(new Object[] { SlotMask.of(valid).toBytes(), id });
+        });
+
+        int converted = sum(jdbc.batchUpdate(
+                "UPDATE doctor_availability SET slot_mask = ? WHERE id = ? AND slot_mask IS NULL", updates));
+        int orphaned = slotsByAvailability.size() - converted;
+
+        jdbc.execute("ALTER TABLE " + LEGACY_TABLE + " RENAME TO " + MIGRATED_TABLE);
+        log.info("Converted {} doctor_availability rows to slot masks, legacy table renamed to {}", converted, MIGRATED_TABLE);
+        if (orphaned > 0) {
+            log.warn("{} availability_id values in {} match no doctor_availability row without a mask and were left as they are",
+                    orphaned, MIGRATED_TABLE);
+        }
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += Math.max(count, 0);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,87 @@
+package com.examly.springapp.config.migration;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Secondary indexes for the predicates the repositories filter on. Each one is created only
+ * if an index of that name is missing, since databases shaped by ddl-auto=update already
+ * carry the ones the entities declared.
+ *
+ * Two lookups are served by the prefix of a wider index instead of one of their own:
+ * (doctor_id, appointment_date, appointment_time) by uk_appointment_active_slot, and
+ * appointment_date by idx_appointment_date_time.
+ *
+ * Old data may break a unique index (two doctors or patients with one email, two schedule rows
+ * for one doctor and day). Which row should win is not ours to guess, so the migration stops
+ * before creating the index and names the rows to merge or delete by hand.
+ */
+@Component
+public class V4__Hot_path_indexes extends SchemaMigration {
+
+    private record IndexSpec(String table, String name, String columns, boolean unique) {}
+
+    // Duplicate rows listed in the failure message, the rest are only counted
+    private static final int DUPLICATES_SHOWN = 20;
+
+    private static final List<IndexSpec> INDEXES = List.of(
+            new IndexSpec("appointment", "idx_appointment_patient_status", "patient_id, status", false),
+            new IndexSpec("appointment", "idx_appointment_status", "status", false),
+            new IndexSpec("appointment", "idx_appointment_date_time", "appointment_date, appointment_time", false),
+            new IndexSpec("appointment", "idx_appointment_series", "series_id", false),
+            new IndexSpec("doctor", "uk_doctor_email", "email", true),
+            new IndexSpec("doctor", "idx_doctor_status", "status", false),
+            new IndexSpec("doctor", "idx_doctor_user", "user_id", false),
+            new IndexSpec("patient", "uk_patient_email", "email", true),
+            new IndexSpec("doctor_availability", "uk_doctor_availability_day", "doctor_id, day_of_week", true),
+            new IndexSpec("doctor_availability", "idx_doctor_availability_day_active", "day_of_week, is_active", false),
+            new IndexSpec("appointment_waitlist", "idx_waitlist_doctor_date_status", "doctor_id, appointment_date, status", false),
+            new IndexSpec("revenue_ledger", "idx_ledger_date_doctor", "service_date, doctor_id, amount", false),
+            new IndexSpec("revenue_ledger", "idx_ledger_doctor_date", "doctor_id, service_date, amount", false),
+            new IndexSpec("revenue_ledger", "idx_ledger_appointment", "appointment_id", false));
+
+    @Override
+    protected void migrate(JdbcTemplate jdbc, DatabaseMetaData catalog) throws SQLException {
+        for (IndexSpec index : INDEXES) {
+            if (!hasIndex(catalog, index.table(), index.name())) {
+                if (index.unique()) {
+                    checkNoDuplicates(jdbc, index);
+                }
+                jdbc.execute("CREATE " + (index.unique() ? "UNIQUE " : "") + "INDEX " + index.name()
+                        + " ON " + index.table() + " (" + index.columns() + ")");
+            }
+        }
+    }
+
+    private void checkNoDuplicates(JdbcTemplate jdbc, IndexSpec index) {
+        List<String> columns = Arrays.asList(index.columns().split(",\\s*"));
+        // NULLs never collide in a unique index, and the join on = leaves them out
+        String matches = columns.stream().map(c -> "t." + c + " = d." + c).collect(Collectors.joining(" AND "));
+        List<String> rows = new ArrayList<>();
+        jdbc.query("SELECT t.id, " + columns.stream().map(c -> "t." + c).collect(Collectors.joining(", "))
+                + " FROM " + index.table() + " t JOIN (SELECT " + index.columns() + " FROM " + index.table()
+                + " GROUP BY " + index.columns() + " HAVING COUNT(*) > 1) d ON " + matches
+                + " ORDER BY " + columns.stream().map(c -> "t." + c).collect(Collectors.joining(", ")) + ", t.id",
+                rs -> {
+                    StringBuilder row = new StringBuilder("id=").append(rs.getLong(1));
+                    for (int i = 0; i < columns.size(); i++) {
+                        row.append(", ").append(columns.get(i)).append('=').append(rs.getObject(i + 2));
+                    }
+                    rows.add(row.toString());
+                });
+        if (rows.isEmpty()) {
+            return;
+        }
+        String shown = String.join("; ", rows.subList(0, Math.min(rows.size(), DUPLICATES_SHOWN)));
+        String more = rows.size() > DUPLICATES_SHOWN ? " and " + (rows.size() - DUPLICATES_SHOWN) + " more" : "";
+        throw new IllegalStateException("Cannot create unique index " + index.name() + " on " + index.table()
+                + " (" + index.columns() + "): these rows share a value, merge or delete them first: " + shown + more);
+    }
+}
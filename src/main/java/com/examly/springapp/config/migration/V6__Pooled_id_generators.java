@@ -0,0 +1,38 @@
+package com.examly.springapp.config.migration;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Table behind the pooled @TableGenerator ids: one row per entity table, each claim
+ * reserves the next 50 ids so Hibernate can assign them without a round trip per insert
+ * and batch the INSERTs. Every row starts one block above the ids already in its table.
+ *
+ * appointment keeps AUTO_INCREMENT ids: AppointmentBatchInserter inserts new rows through JDBC
+ * and reads the generated keys back, so it gets no row here.
+ */
+@Component
+public class V6__Pooled_id_generators extends SchemaMigration {
+
+    // Must match allocationSize on the entities' @TableGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String> TABLES = List.of(
+            "admin", "doctor", "patient", "doctor_availability", "availability", "appointment_waitlist", "revenue_ledger");
+
+    @Override
+    protected void migrate(JdbcTemplate jdbc, DatabaseMetaData catalog) throws SQLException {
+        jdbc.execute("CREATE TABLE id_generator (sequence_name VARCHAR(64) NOT NULL, next_val BIGINT NOT NULL, " +
+                "PRIMARY KEY (sequence_name))");
+        for (String table : TABLES) {
+            // The pooled optimizer hands out the block ending at the stored value, so the first block
+            // claimed starts above the current maximum id
+            Long maxId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            jdbc.update("INSERT INTO id_generator (sequence_name, next_val) VALUES (?, ?)", table, maxId + ALLOCATION_SIZE);
+        }
+    }
+}
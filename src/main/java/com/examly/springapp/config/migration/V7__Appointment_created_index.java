@@ -0,0 +1,22 @@
+package com.examly.springapp.config.migration;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Index behind the dashboard's recent-activity feed, which reads the newest appointments by
+ * created_at: with it the ORDER BY ... LIMIT reads a few index entries instead of sorting the table.
+ */
+@Component
+public class V7__Appointment_created_index extends SchemaMigration {
+
+    @Override
+    protected void migrate(JdbcTemplate jdbc, DatabaseMetaData catalog) throws SQLException {
+        if (!hasIndex(catalog, "appointment", "idx_appointment_created")) {
+            jdbc.execute("CREATE INDEX idx_appointment_created ON appointment (created_at)");
+        }
+    }
+}
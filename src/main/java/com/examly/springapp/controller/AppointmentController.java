@@ -4,14 +4,21 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -25,13 +32,34 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.examly.springapp.dto.AppointmentDto;
+import com.examly.springapp.dto.BulkBookingItem;
+import com.examly.springapp.dto.BulkBookingResult;
+import com.examly.springapp.dto.KeysetPage;
+import com.examly.springapp.dto.SeriesBookingRequest;
+import com.examly.springapp.dto.SeriesBookingResult;
+import com.examly.springapp.dto.WaitlistEntryDto;
 import com.examly.springapp.model.Appointment;
 import com.examly.springapp.model.AppointmentStatus;
 import com.examly.springapp.model.Doctor;
+import com.examly.springapp.model.JwtUtil;
+import com.examly.springapp.model.WaitlistEntry;
+import com.examly.springapp.service.AppointmentColumnStore;
+import com.examly.springapp.service.AppointmentCounters;
+import com.examly.springapp.service.AppointmentExporter;
+import com.examly.springapp.service.AppointmentHourlyRollup;
 import com.examly.springapp.service.AppointmentService;
+import com.examly.springapp.service.DashboardEventHub;
+import com.examly.springapp.service.DashboardResponseCache;
+import com.examly.springapp.service.EntityCacheMetrics;
 import com.examly.springapp.service.DoctorService;
+import com.examly.springapp.service.PatientRegistrationCounters;
 import com.examly.springapp.service.PatientService;
+import com.examly.springapp.service.RevenueLedgerService;
+import com.examly.springapp.service.SlotHoldRegistry;
+import com.examly.springapp.service.WaitlistService;
 
 @RestController
 @RequestMapping("/api/appointments")
@@ -46,6 +74,42 @@ public class AppointmentController {
     @Autowired
     private PatientService patientService;
 
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private AppointmentCounters appointmentCounters;
+
+    @Autowired
+    private AppointmentHourlyRollup hourlyRollup;
+
+    @Autowired
+    private DashboardResponseCache dashboardCache;
+
+    @Autowired
+    private EntityCacheMetrics entityCacheMetrics;
+
+    @Autowired
+    private AppointmentExporter appointmentExporter;
+
+    @Autowired
+    private DashboardEventHub dashboardEvents;
+
+    @Autowired
+    private AppointmentColumnStore appointmentColumnStore;
+
+    @Autowired
+    private PatientRegistrationCounters registrationCounters;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private RevenueLedgerService revenueLedgerService;
+
+    // An hourly series over a long range is thousands of points nobody can chart
+    private static final int MAX_HOURLY_TREND_DAYS = 31;
+
     // ============== DEBUG ENDPOINT ==============
     
     /**
@@ -163,7 +227,9 @@ public class AppointmentController {
      */
     @PreAuthorize("hasRole('DOCTOR')")
     @GetMapping("/my/doctor")
-    public ResponseEntity<List<Appointment>> getMyDoctorAppointments(Authentication authentication) {
+    public ResponseEntity<?> getMyDoctorAppointments(Authentication authentication,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer limit) {
         try {
             String email = authentication.getName();
             System.out.println("Fetching appointments for doctor: " + email);
@@ -177,18 +243,12 @@ public class AppointmentController {
             
             System.out.println("Found doctor: " + doctor.getName() + " (ID: " + doctor.getId() + ")");
             
-            List<Appointment> appointments = appointmentService.getAppointmentsByDoctor(doctor);
-            System.out.println("Found " + appointments.size() + " appointments for doctor");
-            
-            // Enhanced logging for debugging
-            appointments.forEach(apt -> {
-                System.out.println("  Appointment ID: " + apt.getId() + 
-                    ", Patient: " + (apt.getPatient() != null ? apt.getPatient().getName() : "NULL") +
-                    ", Date: " + apt.getAppointmentDate() + 
-                    ", Status: " + apt.getStatus());
-            });
+            KeysetPage<AppointmentDto> page = appointmentService.getAppointmentsByDoctorPage(doctor.getId(), cursor, limit);
+            System.out.println("Found " + page.items().size() + " appointments for doctor");
             
-            return ResponseEntity.ok(appointments);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             System.err.println("Error fetching doctor appointments: " + e.getMessage());
             e.printStackTrace();
@@ -243,8 +303,10 @@ public class AppointmentController {
      */
     @PreAuthorize("hasRole('DOCTOR')")
     @GetMapping("/my-appointments")
-    public ResponseEntity<List<Appointment>> getMyAppointments(Authentication authentication) {
-        return getMyDoctorAppointments(authentication);
+    public ResponseEntity<?> getMyAppointments(Authentication authentication,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit) {
+        return getMyDoctorAppointments(authentication, cursor, limit);
     }
 
     /**
@@ -287,14 +349,52 @@ public class AppointmentController {
     }
     
     /**
-     * View all appointments (Admin only)
+     * Stream appointments for billing as NDJSON or CSV, optionally filtered by date range and
+     * status (Admin only). Rows are written as they are read, in chunks, never held in memory.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public ResponseEntity<?> exportAppointments(@RequestParam(defaultValue = "ndjson") String format,
+                                                @RequestParam(required = false) String from,
+                                                @RequestParam(required = false) String to,
+                                                @RequestParam(required = false) String status) {
+        AppointmentExporter.Format exportFormat;
+        LocalDate fromDate;
+        LocalDate toDate;
+        AppointmentStatus exportStatus;
+        try {
+            exportFormat = AppointmentExporter.Format.valueOf(format.toUpperCase());
+            fromDate = from != null ? LocalDate.parse(from) : null;
+            toDate = to != null ? LocalDate.parse(to) : null;
+            exportStatus = status != null ? AppointmentStatus.valueOf(status.toUpperCase()) : null;
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid date format. Use YYYY-MM-DD"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid format or status: " + e.getMessage()));
+        }
+        if (fromDate != null && toDate != null && toDate.isBefore(fromDate)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "'to' must not be before 'from'"));
+        }
+
+        StreamingResponseBody body = out -> appointmentExporter.export(exportFormat, fromDate, toDate, exportStatus, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"appointments." + exportFormat.extension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * View all appointments (Admin only), one keyset page at a time in (date, time, id) order.
+     * Pass the returned nextCursor back as cursor for the following page.
      */
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping
-    public ResponseEntity<List<Appointment>> getAllAppointments() {
+    public ResponseEntity<?> getAllAppointments(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit) {
         try {
-            List<Appointment> appointments = appointmentService.getAllAppointments();
-            return ResponseEntity.ok(appointments);
+            return ResponseEntity.ok(appointmentService.getAppointmentsPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500).build();
         }
@@ -422,6 +522,260 @@ public class AppointmentController {
         }
     }
     
+    /**
+     * Book many appointments in one request (Admin only). Returns one result per item.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/bulk")
+    public ResponseEntity<?> bookAppointments(@RequestBody List<BulkBookingItem> items) {
+        try {
+            List<BulkBookingResult> results = appointmentService.bookAppointments(items);
+            long booked = results.stream().filter(r -> r.outcome() == BulkBookingResult.Outcome.BOOKED).count();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("results", results);
+            response.put("booked", booked);
+            response.put("failed", results.size() - booked);
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to book appointments: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Book a recurring series, e.g. every Tuesday 10:00 for 12 weeks
+     */
+    @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN')")
+    @PostMapping("/series")
+    public ResponseEntity<?> bookSeries(@RequestBody SeriesBookingRequest request, Authentication authentication) {
+        try {
+            boolean isAdmin = authentication.getAuthorities().stream()
+                    .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+
+            SeriesBookingRequest effective = request;
+            if (!isAdmin) {
+                // Patients always book for themselves
+                Long patientId = patientService.getPatientIdByEmail(authentication.getName());
+                effective = new SeriesBookingRequest(patientId, request.doctorId(), request.startDate(), request.appointmentTime(),
+                        request.frequency(), request.occurrences(), request.reason(), request.partial());
+            } else if (request.patientId() == null) {
+                return ResponseEntity.status(400).body(Map.of("error", "Patient ID is required for admin users"));
+            }
+
+            SeriesBookingResult result = appointmentService.bookSeries(effective);
+            return ResponseEntity.status(result.applied() > 0 ? 201 : 409).body(result);
+
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to book series: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Cancel every remaining occurrence of a series
+     */
+    @PreAuthorize("hasAnyRole('PATIENT', 'DOCTOR', 'ADMIN')")
+    @PatchMapping("/series/{seriesId}/cancel")
+    public ResponseEntity<?> cancelSeries(@PathVariable String seriesId, Authentication authentication) {
+        try {
+            boolean isAdmin = authentication.getAuthorities().stream()
+                    .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+            return ResponseEntity.ok(appointmentService.cancelSeries(seriesId, authentication.getName(), isAdmin));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(403).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to cancel series: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Move every remaining occurrence of a series to a new time and/or by a number of days
+     */
+    @PreAuthorize("hasAnyRole('PATIENT', 'DOCTOR', 'ADMIN')")
+    @PatchMapping("/series/{seriesId}/move")
+    public ResponseEntity<?> moveSeries(@PathVariable String seriesId, @RequestBody Map<String, Object> body, Authentication authentication) {
+        try {
+            boolean isAdmin = authentication.getAuthorities().stream()
+                    .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+            LocalTime newTime = body.get("appointmentTime") != null ? LocalTime.parse(body.get("appointmentTime").toString()) : null;
+            int shiftDays = body.get("shiftDays") != null ? Integer.parseInt(body.get("shiftDays").toString()) : 0;
+            if (newTime == null && shiftDays == 0) {
+                return ResponseEntity.status(400).body(Map.of("error", "A new appointment time or a day shift is required"));
+            }
+
+            SeriesBookingResult result = appointmentService.moveSeries(seriesId, newTime, shiftDays, authentication.getName(), isAdmin);
+            return ResponseEntity.status(result.hasConflicts() ? 409 : 200).body(result);
+
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to move series: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Hold a slot for a short time while the patient fills in the booking form
+     */
+    @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN')")
+    @PostMapping("/holds")
+    public ResponseEntity<?> holdSlot(@RequestBody Map<String, Object> body, Authentication authentication) {
+        try {
+            boolean isAdmin = authentication.getAuthorities().stream()
+                    .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+
+            Long patientId;
+            if (isAdmin && body.get("patientId") != null) {
+                patientId = Long.parseLong(body.get("patientId").toString());
+            } else if (!isAdmin) {
+                patientId = patientService.getPatientIdByEmail(authentication.getName());
+            } else {
+                return ResponseEntity.status(400).body(Map.of("error", "Patient ID is required for admin users"));
+            }
+
+            if (body.get("doctorId") == null || body.get("appointmentDate") == null || body.get("appointmentTime") == null) {
+                return ResponseEntity.status(400).body(Map.of("error", "Doctor ID, appointment date and appointment time are required"));
+            }
+
+            Long doctorId = Long.parseLong(body.get("doctorId").toString());
+            LocalDate date = LocalDate.parse(body.get("appointmentDate").toString());
+            LocalTime time = LocalTime.parse(body.get("appointmentTime").toString());
+
+            SlotHoldRegistry.SlotHold hold = appointmentService.holdSlot(patientId, doctorId, date, time);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("holdId", hold.holdId());
+            response.put("doctorId", hold.doctorId());
+            response.put("patientId", hold.patientId());
+            response.put("appointmentDate", hold.date());
+            response.put("appointmentTime", hold.time());
+            response.put("expiresAt", hold.expiresAt());
+            return ResponseEntity.status(201).body(response);
+
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to hold slot: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Release a slot hold before it expires
+     */
+    @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN')")
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<?> releaseHold(@PathVariable String holdId, Authentication authentication) {
+        try {
+            boolean isAdmin = authentication.getAuthorities().stream()
+                    .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+            Long patientId = isAdmin ? null : patientService.getPatientIdByEmail(authentication.getName());
+
+            if (!appointmentService.releaseHold(holdId, patientId, isAdmin)) {
+                return ResponseEntity.status(404).body(Map.of("error", "Hold not found or already expired"));
+            }
+            return ResponseEntity.ok(Map.of("message", "Hold released successfully"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(403).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to release hold: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Join the waitlist for a booked slot, or for any slot of a day when no time is given.
+     * Cancelled and rejected slots are handed to the first eligible waiting patient.
+     */
+    @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN')")
+    @PostMapping("/waitlist")
+    public ResponseEntity<?> joinWaitlist(@RequestBody Map<String, Object> body, Authentication authentication) {
+        try {
+            boolean isAdmin = authentication.getAuthorities().stream()
+                    .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+
+            Long patientId;
+            if (isAdmin && body.get("patientId") != null) {
+                patientId = Long.parseLong(body.get("patientId").toString());
+            } else if (!isAdmin) {
+                patientId = patientService.getPatientIdByEmail(authentication.getName());
+            } else {
+                return ResponseEntity.status(400).body(Map.of("error", "Patient ID is required for admin users"));
+            }
+
+            if (body.get("doctorId") == null || body.get("appointmentDate") == null) {
+                return ResponseEntity.status(400).body(Map.of("error", "Doctor ID and appointment date are required"));
+            }
+
+            Long doctorId = Long.parseLong(body.get("doctorId").toString());
+            LocalDate date = LocalDate.parse(body.get("appointmentDate").toString());
+            LocalTime time = body.get("appointmentTime") != null ? LocalTime.parse(body.get("appointmentTime").toString()) : null;
+            String reason = body.get("reason") != null ? body.get("reason").toString() : null;
+            // Only admins (front desk) may move someone up the queue
+            int priority = isAdmin && body.get("priority") != null ? Integer.parseInt(body.get("priority").toString()) : 0;
+
+            WaitlistEntry entry = waitlistService.join(patientId, doctorId, date, time, reason, priority);
+            return ResponseEntity.status(201).body(WaitlistEntryDto.from(entry));
+
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to join waitlist: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Current patient's waiting entries
+     */
+    @PreAuthorize("hasRole('PATIENT')")
+    @GetMapping("/waitlist/my")
+    public ResponseEntity<?> getMyWaitlist(Authentication authentication) {
+        try {
+            Long patientId = patientService.getPatientIdByEmail(authentication.getName());
+            List<WaitlistEntryDto> entries = waitlistService.getWaitingEntries(patientId).stream()
+                    .map(WaitlistEntryDto::from)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(entries);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to fetch waitlist: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Leave the waitlist
+     */
+    @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN')")
+    @DeleteMapping("/waitlist/{entryId}")
+    public ResponseEntity<?> leaveWaitlist(@PathVariable Long entryId, Authentication authentication) {
+        try {
+            boolean isAdmin = authentication.getAuthorities().stream()
+                    .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+            Long patientId = isAdmin ? null : patientService.getPatientIdByEmail(authentication.getName());
+
+            if (!waitlistService.leave(entryId, patientId, isAdmin)) {
+                return ResponseEntity.status(404).body(Map.of("error", "Waitlist entry not found or no longer waiting"));
+            }
+            return ResponseEntity.ok(Map.of("message", "Left the waitlist successfully"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(403).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to leave waitlist: " + e.getMessage()));
+        }
+    }
+
     /**
      * Update appointment status
      */
@@ -508,40 +862,118 @@ public class AppointmentController {
     @GetMapping("/dashboard/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
         try {
-            List<Appointment> allAppointments = appointmentService.getAllAppointments();
-            String today = LocalDate.now().toString();
-            
-            Map<String, Object> stats = new HashMap<>();
-            
-            // Basic counts
-            stats.put("totalAppointments", allAppointments.size());
-            stats.put("todayAppointments", allAppointments.stream()
-                .mapToInt(apt -> apt.getAppointmentDate().toString().equals(today) ? 1 : 0)
-                .sum());
-            stats.put("pendingAppointments", allAppointments.stream()
-                .mapToInt(apt -> (apt.getStatus() == AppointmentStatus.PENDING || 
-                                 apt.getStatus() == AppointmentStatus.SCHEDULED) ? 1 : 0)
-                .sum());
-            stats.put("completedAppointments", allAppointments.stream()
-                .mapToInt(apt -> apt.getStatus() == AppointmentStatus.COMPLETED ? 1 : 0)
-                .sum());
-            
-            // Revenue calculation (this month)
-            LocalDate firstOfMonth = LocalDate.now().withDayOfMonth(1);
-            int monthlyRevenue = allAppointments.stream()
-                .filter(apt -> apt.getStatus() == AppointmentStatus.COMPLETED)
-                .filter(apt -> !apt.getAppointmentDate().isBefore(firstOfMonth))
-                .mapToInt(apt -> 150) // Default fee, adjust based on your fee structure
-                .sum();
-            stats.put("monthlyRevenue", monthlyRevenue);
-            
-            return ResponseEntity.ok(stats);
+            return ResponseEntity.ok(dashboardCache.get("stats", this::computeDashboardStats));
         } catch (Exception e) {
             System.err.println("Error getting dashboard stats: " + e.getMessage());
             return ResponseEntity.status(500).body(null);
         }
     }
 
+    /**
+     * Ad-hoc breakdown of appointments (Admin only), e.g. groupBy=specialization,weekday with
+     * status=COMPLETED. List parameters are comma separated; every filter is optional.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/analytics")
+    public ResponseEntity<?> getAppointmentAnalytics(@RequestParam(defaultValue = "") String groupBy,
+                                                     @RequestParam(required = false) String from,
+                                                     @RequestParam(required = false) String to,
+                                                     @RequestParam(required = false) String status,
+                                                     @RequestParam(required = false) String doctorId,
+                                                     @RequestParam(required = false) Long patientId,
+                                                     @RequestParam(required = false) String specialization,
+                                                     @RequestParam(required = false) String weekday,
+                                                     @RequestParam(required = false) Integer hourFrom,
+                                                     @RequestParam(required = false) Integer hourTo,
+                                                     @RequestParam(defaultValue = "100") int limit) {
+        try {
+            List<AppointmentColumnStore.Dimension> dimensions = new ArrayList<>();
+            for (String name : splitParam(groupBy)) {
+                dimensions.add(AppointmentColumnStore.Dimension.valueOf(name.toUpperCase()));
+            }
+            Set<AppointmentStatus> statuses = new HashSet<>();
+            for (String name : splitParam(status)) {
+                statuses.add(AppointmentStatus.valueOf(name.toUpperCase()));
+            }
+            Set<Long> doctorIds = new HashSet<>();
+            for (String id : splitParam(doctorId)) {
+                doctorIds.add(Long.parseLong(id));
+            }
+            Set<DayOfWeek> weekdays = new HashSet<>();
+            for (String name : splitParam(weekday)) {
+                weekdays.add(DayOfWeek.valueOf(name.toUpperCase()));
+            }
+
+            AppointmentColumnStore.Filter filter = new AppointmentColumnStore.Filter(
+                    from != null ? LocalDate.parse(from) : null, to != null ? LocalDate.parse(to) : null,
+                    statuses, doctorIds, patientId, specialization, weekdays, hourFrom, hourTo);
+            return ResponseEntity.ok(appointmentColumnStore.query(filter, dimensions, limit));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid date format. Use YYYY-MM-DD"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to run analytics: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Recount the dashboard counters from the appointment and patient tables (recovery)
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/dashboard/counters/rebuild")
+    public ResponseEntity<?> rebuildDashboardCounters() {
+        try {
+            appointmentCounters.rebuild(); // the hourly rollup with it
+            appointmentColumnStore.rebuild();
+            registrationCounters.rebuild();
+            dashboardCache.invalidateAll();
+            return ResponseEntity.ok(Map.of("message", "Dashboard counters rebuilt", "totalAppointments", appointmentCounters.total()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to rebuild dashboard counters: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Short-lived token for opening the live dashboard feed from a browser: EventSource cannot
+     * send the Authorization header, so the page passes this as ?access_token= instead
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/dashboard/live/token")
+    public ResponseEntity<?> getLiveDashboardToken(Authentication authentication) {
+        String role = authentication.getAuthorities().iterator().next().getAuthority();
+        return ResponseEntity.ok(Map.of("token", jwtUtil.generateStreamToken(authentication.getName(), role),
+                "param", "access_token"));
+    }
+
+    /**
+     * Live dashboard feed (server-sent events): a "snapshot" of the dashboard stats, then one
+     * "delta" per committed appointment change (booked, approved, rejected, completed,
+     * cancelled, moved, deleted) instead of polling the dashboard endpoints.
+     * Browsers authenticate with ?access_token= from /dashboard/live/token.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(value = "/dashboard/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> getLiveDashboard() {
+        try {
+            return ResponseEntity.ok(dashboardEvents.subscribe(this::computeDashboardStats));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).contentType(MediaType.APPLICATION_JSON).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Hit/miss counts and recompute latency of the dashboard response cache, plus the hit
+     * ratios of the doctor and availability entity/query cache regions under "entityCache"
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/dashboard/cache/metrics")
+    public ResponseEntity<Map<String, Object>> getDashboardCacheMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>(dashboardCache.metrics());
+        metrics.put("entityCache", entityCacheMetrics.metrics());
+        return ResponseEntity.ok(metrics);
+    }
+
     /**
      * Get appointments by status for charts
      */
@@ -549,24 +981,7 @@ public class AppointmentController {
     @GetMapping("/dashboard/status-distribution")
     public ResponseEntity<List<Map<String, Object>>> getStatusDistribution() {
         try {
-            List<Appointment> allAppointments = appointmentService.getAllAppointments();
-            
-            Map<AppointmentStatus, Long> statusCounts = allAppointments.stream()
-                .collect(Collectors.groupingBy(
-                    Appointment::getStatus,
-                    Collectors.counting()
-                ));
-            
-            List<Map<String, Object>> distribution = statusCounts.entrySet().stream()
-                .map(entry -> {
-                    Map<String, Object> statusData = new HashMap<>();
-                    statusData.put("status", entry.getKey().toString());
-                    statusData.put("count", entry.getValue());
-                    return statusData;
-                })
-                .collect(Collectors.toList());
-            
-            return ResponseEntity.ok(distribution);
+            return ResponseEntity.ok(dashboardCache.get("status-distribution", this::computeStatusDistribution));
         } catch (Exception e) {
             System.err.println("Error getting status distribution: " + e.getMessage());
             return ResponseEntity.status(500).body(null);
@@ -580,55 +995,7 @@ public class AppointmentController {
     @GetMapping("/dashboard/hourly-trends")
     public ResponseEntity<List<Map<String, Object>>> getHourlyTrends() {
         try {
-            String today = LocalDate.now().toString();
-            List<Appointment> todayAppointments = appointmentService.getAllAppointments()
-                .stream()
-                .filter(apt -> apt.getAppointmentDate().toString().equals(today))
-                .collect(Collectors.toList());
-            
-            Map<String, Map<String, Integer>> hourlyData = new HashMap<>();
-            
-            // Initialize hourly slots
-            for (int hour = 8; hour <= 18; hour++) {
-                String timeSlot = String.format("%02d:00", hour);
-                Map<String, Integer> slotData = new HashMap<>();
-                slotData.put("scheduled", 0);
-                slotData.put("completed", 0);
-                slotData.put("pending", 0);
-                hourlyData.put(timeSlot, slotData);
-            }
-            
-            // Fill with actual data
-            todayAppointments.forEach(apt -> {
-                if (apt.getAppointmentTime() != null) {
-                    String hour = apt.getAppointmentTime().toString().substring(0, 2);
-                    String timeSlot = hour + ":00";
-                    
-                    if (hourlyData.containsKey(timeSlot)) {
-                        Map<String, Integer> slotData = hourlyData.get(timeSlot);
-                        slotData.put("scheduled", slotData.get("scheduled") + 1);
-                        
-                        if (apt.getStatus() == AppointmentStatus.COMPLETED) {
-                            slotData.put("completed", slotData.get("completed") + 1);
-                        } else if (apt.getStatus() == AppointmentStatus.PENDING || 
-                                  apt.getStatus() == AppointmentStatus.SCHEDULED) {
-                            slotData.put("pending", slotData.get("pending") + 1);
-                        }
-                    }
-                }
-            });
-            
-            List<Map<String, Object>> trends = hourlyData.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .map(entry -> {
-                    Map<String, Object> trendData = new HashMap<>();
-                    trendData.put("time", entry.getKey());
-                    trendData.putAll(entry.getValue());
-                    return trendData;
-                })
-                .collect(Collectors.toList());
-            
-            return ResponseEntity.ok(trends);
+            return ResponseEntity.ok(dashboardCache.get("hourly-trends", this::computeHourlyTrends));
         } catch (Exception e) {
             System.err.println("Error getting hourly trends: " + e.getMessage());
             return ResponseEntity.status(500).body(null);
@@ -642,40 +1009,54 @@ public class AppointmentController {
     @GetMapping("/dashboard/weekly-stats")
     public ResponseEntity<List<Map<String, Object>>> getWeeklyStats() {
         try {
-            List<Appointment> allAppointments = appointmentService.getAllAppointments();
-            LocalDate startOfWeek = LocalDate.now().with(DayOfWeek.MONDAY);
-            
-            List<Map<String, Object>> weeklyData = new ArrayList<>();
-            String[] days = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
-            
-            for (int i = 0; i < 7; i++) {
-                LocalDate day = startOfWeek.plusDays(i);
-                String dayStr = days[i];
-                
-                long dayAppointments = allAppointments.stream()
-                    .filter(apt -> apt.getAppointmentDate().equals(day))
-                    .count();
-                
-                int dayRevenue = allAppointments.stream()
-                    .filter(apt -> apt.getAppointmentDate().equals(day))
-                    .filter(apt -> apt.getStatus() == AppointmentStatus.COMPLETED)
-                    .mapToInt(apt -> 150) // Adjust based on your fee structure
-                    .sum();
-                
-                Map<String, Object> dayData = new HashMap<>();
-                dayData.put("day", dayStr);
-                dayData.put("appointments", dayAppointments);
-                dayData.put("revenue", dayRevenue);
-                weeklyData.add(dayData);
-            }
-            
-            return ResponseEntity.ok(weeklyData);
+            return ResponseEntity.ok(dashboardCache.get("weekly-stats", this::computeWeeklyStats));
         } catch (Exception e) {
             System.err.println("Error getting weekly stats: " + e.getMessage());
             return ResponseEntity.status(500).body(null);
         }
     }
 
+    /**
+     * Appointment counts by status and revenue over a date range, bucketed by hour, day, week
+     * or month, optionally for one doctor (backs the hourly/weekly/monthly charts)
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/dashboard/trends")
+    public ResponseEntity<?> getTrends(@RequestParam String from,
+                                       @RequestParam String to,
+                                       @RequestParam(defaultValue = "DAY") String granularity,
+                                       @RequestParam(required = false) Long doctorId) {
+        try {
+            LocalDate fromDate = LocalDate.parse(from);
+            LocalDate toDate = LocalDate.parse(to);
+            if (toDate.isBefore(fromDate)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "'to' must not be before 'from'"));
+            }
+            AppointmentHourlyRollup.Granularity step = AppointmentHourlyRollup.Granularity.valueOf(granularity.toUpperCase());
+            if (step == AppointmentHourlyRollup.Granularity.HOUR && ChronoUnit.DAYS.between(fromDate, toDate) > MAX_HOURLY_TREND_DAYS) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Hourly trends cover at most " + MAX_HOURLY_TREND_DAYS + " days"));
+            }
+            
+            List<Map<String, Object>> points = new ArrayList<>();
+            for (AppointmentHourlyRollup.Point point : hourlyRollup.series(
+                    fromDate.atStartOfDay(), toDate.plusDays(1).atStartOfDay(), step, doctorId)) {
+                Map<String, Object> pointData = new HashMap<>();
+                pointData.put("start", point.start().toString());
+                pointData.put("total", point.total());
+                pointData.put("byStatus", point.byStatus());
+                pointData.put("revenue", point.revenue());
+                points.add(pointData);
+            }
+            return ResponseEntity.ok(points);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid date format. Use YYYY-MM-DD"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid granularity. Use HOUR, DAY, WEEK or MONTH"));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to load trends: " + e.getMessage()));
+        }
+    }
+
     /**
      * Get recent system activity for dashboard
      */
@@ -683,49 +1064,131 @@ public class AppointmentController {
     @GetMapping("/dashboard/recent-activity")
     public ResponseEntity<List<Map<String, Object>>> getRecentActivity() {
         try {
-            List<Map<String, Object>> activities = new ArrayList<>();
-            
-            // Get recent appointments
-            List<Appointment> recentAppointments = appointmentService.getAllAppointments()
-                .stream()
-                .sorted((a, b) -> {
-                    if (a.getCreatedAt() == null) return 1;
-                    if (b.getCreatedAt() == null) return -1;
-                    return b.getCreatedAt().compareTo(a.getCreatedAt());
-                })
-                .limit(3)
-                .collect(Collectors.toList());
-            
-            for (Appointment apt : recentAppointments) {
-                Map<String, Object> activity = new HashMap<>();
-                activity.put("id", "apt-" + apt.getId());
-                activity.put("type", "appointment");
-                activity.put("message", "New appointment scheduled");
-                activity.put("details", String.format("%s with %s", 
-                    apt.getPatient() != null ? apt.getPatient().getName() : "Patient",
-                    apt.getDoctor() != null ? apt.getDoctor().getName() : "Doctor"));
-                activity.put("time", getRelativeTime(apt.getCreatedAt()));
-                activity.put("status", "info");
-                activities.add(activity);
-            }
-            
-            // Add system maintenance activity (you can customize this)
-            Map<String, Object> systemActivity = new HashMap<>();
-            systemActivity.put("id", "system-1");
-            systemActivity.put("type", "warning");
-            systemActivity.put("message", "System maintenance scheduled");
-            systemActivity.put("details", "Planned downtime: 2:00 AM - 4:00 AM");
-            systemActivity.put("time", "2h ago");
-            systemActivity.put("status", "warning");
-            activities.add(systemActivity);
-            
-            return ResponseEntity.ok(activities);
+            return ResponseEntity.ok(dashboardCache.get("recent-activity", this::computeRecentActivity));
         } catch (Exception e) {
             System.err.println("Error getting recent activity: " + e.getMessage());
             return ResponseEntity.status(500).body(null);
         }
     }
 
+    // ------------------ DASHBOARD COMPUTATIONS (cached by dashboardCache) ------------------
+
+    private Map<String, Object> computeDashboardStats() {
+        // Precomputed counters, no appointment rows are loaded
+        LocalDate today = LocalDate.now();
+        
+        Map<String, Object> stats = new HashMap<>();
+        
+        // Basic counts
+        stats.put("totalAppointments", appointmentCounters.total());
+        stats.put("todayAppointments", appointmentCounters.forDay(today));
+        stats.put("pendingAppointments", appointmentCounters.forStatus(AppointmentStatus.PENDING)
+                + appointmentCounters.forStatus(AppointmentStatus.SCHEDULED));
+        stats.put("completedAppointments", appointmentCounters.forStatus(AppointmentStatus.COMPLETED));
+        
+        // Revenue this month, summed from the ledger at the fees actually charged
+        YearMonth month = YearMonth.from(today);
+        stats.put("monthlyRevenue", revenueLedgerService.revenueBetween(month.atDay(1), month.atEndOfMonth()));
+        
+        return stats;
+    }
+
+    // Statuses with at least one appointment, counted by AppointmentCounters
+    private List<Map<String, Object>> computeStatusDistribution() {
+        List<Map<String, Object>> distribution = new ArrayList<>();
+        for (AppointmentStatus status : AppointmentStatus.values()) {
+            long count = appointmentCounters.forStatus(status);
+            if (count > 0) {
+                Map<String, Object> statusData = new HashMap<>();
+                statusData.put("status", status.toString());
+                statusData.put("count", count);
+                distribution.add(statusData);
+            }
+        }
+        return distribution;
+    }
+
+    private List<Map<String, Object>> computeHourlyTrends() {
+        LocalDate today = LocalDate.now();
+        List<AppointmentHourlyRollup.Point> hours = hourlyRollup.series(
+                today.atTime(8, 0), today.atTime(19, 0), AppointmentHourlyRollup.Granularity.HOUR, null);
+        
+        List<Map<String, Object>> trends = new ArrayList<>();
+        for (AppointmentHourlyRollup.Point hour : hours) {
+            Map<String, Object> trendData = new HashMap<>();
+            trendData.put("time", String.format("%02d:00", hour.start().getHour()));
+            trendData.put("scheduled", hour.total());
+            trendData.put("completed", hour.count(AppointmentStatus.COMPLETED));
+            trendData.put("pending", hour.count(AppointmentStatus.PENDING, AppointmentStatus.SCHEDULED));
+            trends.add(trendData);
+        }
+        
+        return trends;
+    }
+
+    private List<Map<String, Object>> computeWeeklyStats() {
+        LocalDate startOfWeek = LocalDate.now().with(DayOfWeek.MONDAY);
+        List<AppointmentHourlyRollup.Point> days = hourlyRollup.series(
+                startOfWeek.atStartOfDay(), startOfWeek.plusDays(7).atStartOfDay(), AppointmentHourlyRollup.Granularity.DAY, null);
+        
+        List<Map<String, Object>> weeklyData = new ArrayList<>();
+        String[] dayNames = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+        
+        for (int i = 0; i < days.size(); i++) {
+            Map<String, Object> dayData = new HashMap<>();
+            dayData.put("day", dayNames[i]);
+            dayData.put("appointments", days.get(i).total());
+            dayData.put("revenue", days.get(i).revenue());
+            weeklyData.add(dayData);
+        }
+        
+        return weeklyData;
+    }
+
+    private List<Map<String, Object>> computeRecentActivity() {
+        List<Map<String, Object>> activities = new ArrayList<>();
+        
+        // Get recent appointments
+        List<Appointment> recentAppointments = appointmentService.getRecentlyCreated(3);
+        
+        for (Appointment apt : recentAppointments) {
+            Map<String, Object> activity = new HashMap<>();
+            activity.put("id", "apt-" + apt.getId());
+            activity.put("type", "appointment");
+            activity.put("message", "New appointment scheduled");
+            activity.put("details", String.format("%s with %s", 
+                apt.getPatient() != null ? apt.getPatient().getName() : "Patient",
+                apt.getDoctor() != null ? apt.getDoctor().getName() : "Doctor"));
+            activity.put("time", getRelativeTime(apt.getCreatedAt()));
+            activity.put("status", "info");
+            activities.add(activity);
+        }
+        
+        // Add system maintenance activity (you can customize this)
+        Map<String, Object> systemActivity = new HashMap<>();
+        systemActivity.put("id", "system-1");
+        systemActivity.put("type", "warning");
+        systemActivity.put("message", "System maintenance scheduled");
+        systemActivity.put("details", "Planned downtime: 2:00 AM - 4:00 AM");
+        systemActivity.put("time", "2h ago");
+        systemActivity.put("status", "warning");
+        activities.add(systemActivity);
+        
+        return activities;
+    }
+
+    private static List<String> splitParam(String value) {
+        List<String> parts = new ArrayList<>();
+        if (value != null) {
+            for (String part : value.split(",")) {
+                if (!part.isBlank()) {
+                    parts.add(part.trim());
+                }
+            }
+        }
+        return parts;
+    }
+
     // Helper method for relative time calculation
     private String getRelativeTime(LocalDateTime timestamp) {
         if (timestamp == null) return "Just now";
@@ -18,6 +18,7 @@ import com.examly.springapp.model.Role;
 import com.examly.springapp.repository.AdminRepository;
 import com.examly.springapp.repository.DoctorRepository;
 import com.examly.springapp.repository.PatientRepository;
+import com.examly.springapp.service.PatientService;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -32,6 +33,7 @@ public class AuthController {
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final AdminRepository adminRepository;
+    private final PatientService patientService;
 
     public AuthController(AuthenticationManager authManager,
                           com.examly.springapp.service.MyUserDetailsService userDetailsService,
@@ -39,7 +41,8 @@ public class AuthController {
                           PasswordEncoder passwordEncoder,
                           PatientRepository patientRepository,
                           DoctorRepository doctorRepository,
-                          AdminRepository adminRepository) {
+                          AdminRepository adminRepository,
+                          PatientService patientService) {
         this.authManager = authManager;
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
@@ -47,6 +50,7 @@ public class AuthController {
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
         this.adminRepository = adminRepository;
+        this.patientService = patientService;
     }
 
     @PostMapping("/register")
@@ -93,7 +97,7 @@ public class AuthController {
                     return ResponseEntity.status(400).body("Invalid date format. Use YYYY-MM-DD");
                 }
 
-                patientRepository.save(patient);
+                patientService.createPatient(patient);
                 return ResponseEntity.ok("Patient registered successfully");
 
             } else if ("DOCTOR".equals(role)) {
@@ -1,6 +1,7 @@
 package com.examly.springapp.controller;
 
 import com.examly.springapp.dto.AvailabilityDto;
+import com.examly.springapp.dto.AvailableSlotDto;
 import com.examly.springapp.model.Doctor;
 import com.examly.springapp.model.DoctorAvailability;
 import com.examly.springapp.service.AvailabilityService;
@@ -84,6 +85,30 @@ public class AvailabilityController {
         }
     }
 
+    // Free slots per date from the materialized calendar (month view) - accessible to all authenticated users
+    @GetMapping("/doctors/{doctorId}/availability/calendar")
+    @PreAuthorize("hasAnyAuthority('ROLE_PATIENT', 'ROLE_DOCTOR', 'ROLE_ADMIN')")
+    public ResponseEntity<?> getFreeSlotCalendar(
+            @PathVariable Long doctorId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            LocalDate fromDate = from != null ? LocalDate.parse(from, DateTimeFormatter.ISO_DATE) : null;
+            LocalDate toDate = to != null ? LocalDate.parse(to, DateTimeFormatter.ISO_DATE) : null;
+            Map<LocalDate, List<String>> calendar = availabilityService.getFreeSlotCalendar(doctorId, fromDate, toDate);
+            return ResponseEntity.ok(calendar);
+        } catch (java.time.format.DateTimeParseException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid date format. Use YYYY-MM-DD"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch free slot calendar: " + e.getMessage()));
+        }
+    }
+
     // Check if doctor is available - accessible to all authenticated users
     @GetMapping("/doctors/{doctorId}/availability/check")
     @PreAuthorize("hasAnyAuthority('ROLE_PATIENT', 'ROLE_DOCTOR', 'ROLE_ADMIN')")
@@ -208,4 +233,30 @@ public class AvailabilityController {
                     .body(Map.of("error", "Failed to fetch available doctors: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    // Earliest free slots across all active doctors of a specialization - accessible to patients and admins
+    @GetMapping("/availability/earliest")
+    @PreAuthorize("hasAnyAuthority('ROLE_PATIENT', 'ROLE_ADMIN')")
+    public ResponseEntity<?> getEarliestAvailableSlots(
+            @RequestParam String specialization,
+            @RequestParam(required = false) String clinicName,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            LocalDate fromDate = from != null ? LocalDate.parse(from, DateTimeFormatter.ISO_DATE) : null;
+            LocalDate toDate = to != null ? LocalDate.parse(to, DateTimeFormatter.ISO_DATE) : null;
+            List<AvailableSlotDto> slots = availabilityService.findEarliestSlots(specialization, clinicName, fromDate, toDate, limit);
+            return ResponseEntity.ok(slots);
+        } catch (java.time.format.DateTimeParseException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid date format. Use YYYY-MM-DD"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to search available slots: " + e.getMessage()));
+        }
+    }
+}
@@ -4,7 +4,6 @@ import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -13,6 +12,9 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import com.examly.springapp.dto.DoctorDto;
+import com.examly.springapp.dto.DoctorRankingDto;
+import com.examly.springapp.dto.KeysetPage;
 import com.examly.springapp.model.Appointment;
 import com.examly.springapp.model.AppointmentStatus;
 import com.examly.springapp.model.Doctor;
@@ -20,6 +22,7 @@ import com.examly.springapp.model.Doctor.ProfileStatus;
 import com.examly.springapp.model.DoctorAvailability;
 import com.examly.springapp.service.AppointmentService;
 import com.examly.springapp.service.DoctorService;
+import com.examly.springapp.service.DoctorStatsService;
 import com.examly.springapp.service.DoctorService.*;
 
 import jakarta.validation.Valid;
@@ -34,6 +37,9 @@ public class DoctorController {
     @Autowired
     private AppointmentService appointmentService;
 
+    @Autowired
+    private DoctorStatsService doctorStatsService;
+
     // =============================================================================
     // FR2: Admin Features for Doctor Profile Management
     // =============================================================================
@@ -197,12 +203,14 @@ public class DoctorController {
 
     @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN')")
     @GetMapping
-    public ResponseEntity<List<Doctor>> getAllDoctors() {
+    public ResponseEntity<?> getAllDoctors(@RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer limit) {
         try {
-            System.out.println("🔍 Loading all doctors...");
-            List<Doctor> doctorList = doctorService.getAllDoctors();
-            System.out.println("✅ Found " + doctorList.size() + " doctors");
-            return new ResponseEntity<>(doctorList, HttpStatus.OK);
+            KeysetPage<DoctorDto> page = doctorService.getDoctorsPage(cursor, limit);
+            System.out.println("✅ Loaded " + page.items().size() + " doctors");
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             System.err.println("❌ Error loading doctors: " + e.getMessage());
             e.printStackTrace();
@@ -421,49 +429,7 @@ public class DoctorController {
 @GetMapping("/dashboard/doctor-stats")
 public ResponseEntity<Map<String, Object>> getDoctorStats() {
     try {
-        List<Doctor> allDoctors = doctorService.getAllDoctors();
-        
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalDoctors", allDoctors.size());
-        
-        // Count by specialization
-        Map<String, Long> specializationCounts = allDoctors.stream()
-            .filter(d -> d.getSpecialization() != null)
-            .collect(Collectors.groupingBy(
-                Doctor::getSpecialization,
-                Collectors.counting()
-            ));
-        stats.put("specializationDistribution", specializationCounts);
-        
-        // Count active doctors (those with recent appointments)
-        LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
-        long activeDoctors = allDoctors.stream()
-            .filter(doctor -> {
-                try {
-                    List<Appointment> doctorAppointments = appointmentService.getAppointmentsByDoctor(doctor);
-                    return doctorAppointments.stream()
-                        .anyMatch(apt -> !apt.getAppointmentDate().isBefore(thirtyDaysAgo));
-                } catch (Exception e) {
-                    return false;
-                }
-            })
-            .count();
-        stats.put("activeDoctors", activeDoctors);
-        
-        // Calculate average appointments per doctor
-        double avgAppointments = allDoctors.stream()
-            .mapToInt(doctor -> {
-                try {
-                    return appointmentService.getAppointmentsByDoctor(doctor).size();
-                } catch (Exception e) {
-                    return 0;
-                }
-            })
-            .average()
-            .orElse(0.0);
-        stats.put("avgAppointmentsPerDoctor", Math.round(avgAppointments * 100.0) / 100.0);
-        
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(doctorStatsService.doctorStats());
     } catch (Exception e) {
         System.err.println("Error getting doctor stats: " + e.getMessage());
         return ResponseEntity.status(500).body(null);
@@ -475,40 +441,20 @@ public ResponseEntity<Map<String, Object>> getDoctorStats() {
  */
 @PreAuthorize("hasRole('ADMIN')")
 @GetMapping("/dashboard/top-doctors")
-public ResponseEntity<List<Map<String, Object>>> getTopDoctors(@RequestParam(defaultValue = "5") int limit) {
+public ResponseEntity<?> getTopDoctors(
+        @RequestParam(defaultValue = "5") int limit,
+        @RequestParam(defaultValue = "ALL") String window,
+        @RequestParam(required = false) String from,
+        @RequestParam(required = false) String to) {
     try {
-        List<Doctor> allDoctors = doctorService.getAllDoctors();
-        
-        List<Map<String, Object>> topDoctors = allDoctors.stream()
-            .map(doctor -> {
-                int appointmentCount = 0;
-                int completedCount = 0;
-                try {
-                    List<Appointment> appointments = appointmentService.getAppointmentsByDoctor(doctor);
-                    appointmentCount = appointments.size();
-                    completedCount = (int) appointments.stream()
-                        .filter(apt -> apt.getStatus() == AppointmentStatus.COMPLETED)
-                        .count();
-                } catch (Exception e) {
-                    // Handle error silently
-                }
-                
-                Map<String, Object> doctorStats = new HashMap<>();
-                doctorStats.put("id", doctor.getId());
-                doctorStats.put("name", doctor.getName());
-                doctorStats.put("specialization", doctor.getSpecialization());
-                doctorStats.put("totalAppointments", appointmentCount);
-                doctorStats.put("completedAppointments", completedCount);
-                doctorStats.put("completionRate", appointmentCount > 0 ? 
-                    Math.round((completedCount / (double)appointmentCount) * 100) : 0);
-                
-                return doctorStats;
-            })
-            .sorted((a, b) -> Integer.compare((Integer)b.get("totalAppointments"), (Integer)a.get("totalAppointments")))
-            .limit(limit)
-            .collect(Collectors.toList());
-        
+        DoctorStatsService.Window rankingWindow = DoctorStatsService.Window.valueOf(window.toUpperCase());
+        LocalDate fromDate = from != null ? LocalDate.parse(from) : null;
+        LocalDate toDate = to != null ? LocalDate.parse(to) : null;
+
+        List<DoctorRankingDto> topDoctors = doctorStatsService.topDoctors(limit, rankingWindow, fromDate, toDate);
         return ResponseEntity.ok(topDoctors);
+    } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", "Invalid window or date: " + e.getMessage()));
     } catch (Exception e) {
         System.err.println("Error getting top doctors: " + e.getMessage());
         return ResponseEntity.status(500).body(null);
@@ -1,6 +1,9 @@
 package com.examly.springapp.controller;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,14 +19,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.examly.springapp.model.Appointment;
 import com.examly.springapp.model.AppointmentStatus;
 import com.examly.springapp.model.Doctor;
 import com.examly.springapp.model.Patient;
-import com.examly.springapp.repository.PatientRepository;
 import com.examly.springapp.service.DoctorService;
+import com.examly.springapp.service.PatientRegistrationCounters;
 import com.examly.springapp.service.PatientService;
 
 import org.springframework.security.core.Authentication;
@@ -42,7 +46,9 @@ public class PatientController {
     private DoctorService doctorService;
 
     @Autowired
-    private PatientRepository patientRepository;
+    private PatientRegistrationCounters registrationCounters;
+
+    private static final int MAX_TREND_WINDOW_DAYS = 366;
 
     
     // Regular patient creation - Anyone can register as patient via /auth/register
@@ -52,11 +58,16 @@ public class PatientController {
         return new ResponseEntity<>(saved, HttpStatus.CREATED);
     }
     
-    // ✅ View all patients - ONLY Admin
+    // ✅ View all patients - ONLY Admin, one keyset page at a time (pass nextCursor back as cursor)
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping
-    public ResponseEntity<List<Patient>> getAllPatients() {
-        return ResponseEntity.ok(patientService.getAllPatients());
+    public ResponseEntity<?> getAllPatients(@RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(patientService.getPatientsPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
     
     // View individual patient details - Patients can view their own, Doctors and Admins can view all
@@ -104,15 +115,18 @@ public class PatientController {
     // ✅ View only patients who booked with this doctor
     @GetMapping("/my")  // ✅ CORRECT - this creates /api/patients/my
 @PreAuthorize("hasRole('DOCTOR')")  // Add security annotation
-public ResponseEntity<List<Patient>> getMyPatients(Authentication authentication) {
+public ResponseEntity<?> getMyPatients(Authentication authentication,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(required = false) Integer limit) {
     try {
         Doctor doctor = doctorService.getDoctorByEmail(authentication.getName());
         if (doctor == null) {
             return ResponseEntity.status(404).body(null);
         }
         
-        List<Patient> patients = patientRepository.findPatientsByDoctorId(doctor.getId());
-        return ResponseEntity.ok(patients);
+        return ResponseEntity.ok(patientService.getPatientsOfDoctorPage(doctor.getId(), cursor, limit));
+    } catch (IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
     } catch (Exception e) {
         System.err.println("Error fetching doctor's patients: " + e.getMessage());
         return ResponseEntity.status(500).body(null);
@@ -156,37 +170,16 @@ public ResponseEntity<Map<String, Object>> getMyPatientStats(Authentication auth
  */
 @PreAuthorize("hasRole('ADMIN')")
 @GetMapping("/dashboard/registration-trends")
-public ResponseEntity<Map<String, Object>> getPatientRegistrationTrends() {
+public ResponseEntity<Map<String, Object>> getPatientRegistrationTrends(@RequestParam(required = false) String from,
+                                                                        @RequestParam(required = false) String to) {
     try {
-        List<Patient> allPatients = patientService.getAllPatients();
-        
         // Count registrations in different time periods
-        LocalDate now = LocalDate.now();
-        LocalDate thirtyDaysAgo = now.minusDays(30);
-        LocalDate sevenDaysAgo = now.minusDays(7);
-        LocalDate today = now;
+        LocalDate today = LocalDate.now();
         
-        long totalPatients = allPatients.size();
-        long newThisMonth = allPatients.stream()
-            .filter(p -> {
-                LocalDate regDate = getRegistrationDate(p);
-                return regDate != null && !regDate.isBefore(thirtyDaysAgo);
-            })
-            .count();
-        
-        long newThisWeek = allPatients.stream()
-            .filter(p -> {
-                LocalDate regDate = getRegistrationDate(p);
-                return regDate != null && !regDate.isBefore(sevenDaysAgo);
-            })
-            .count();
-        
-        long newToday = allPatients.stream()
-            .filter(p -> {
-                LocalDate regDate = getRegistrationDate(p);
-                return regDate != null && regDate.equals(today);
-            })
-            .count();
+        long totalPatients = registrationCounters.total();
+        long newThisMonth = registrationCounters.between(today.minusDays(30), today);
+        long newThisWeek = registrationCounters.between(today.minusDays(7), today);
+        long newToday = registrationCounters.between(today, today);
         
         Map<String, Object> trends = new HashMap<>();
         trends.put("totalPatients", totalPatients);
@@ -196,24 +189,47 @@ public ResponseEntity<Map<String, Object>> getPatientRegistrationTrends() {
         trends.put("growthRate", newThisMonth > 0 ? 
             String.format("%.1f%%", (newThisMonth / (double)Math.max(totalPatients - newThisMonth, 1)) * 100) : "0%");
         
+        // Optional window: registrations per day with running totals, and growth over the window
+        if (from != null || to != null) {
+            LocalDate toDate = to != null ? LocalDate.parse(to) : today;
+            LocalDate fromDate = from != null ? LocalDate.parse(from) : toDate.minusDays(29);
+            if (toDate.isBefore(fromDate) || ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_TREND_WINDOW_DAYS) {
+                return ResponseEntity.badRequest().body(Map.<String, Object>of("error",
+                    "Window must run forwards and cover at most " + MAX_TREND_WINDOW_DAYS + " days"));
+            }
+            
+            long cumulative = registrationCounters.cumulative(fromDate.minusDays(1));
+            List<Map<String, Object>> daily = new ArrayList<>();
+            for (LocalDate day = fromDate; !day.isAfter(toDate); day = day.plusDays(1)) {
+                long registrations = registrationCounters.between(day, day);
+                cumulative += registrations;
+                Map<String, Object> dayData = new HashMap<>();
+                dayData.put("date", day.toString());
+                dayData.put("registrations", registrations);
+                dayData.put("cumulative", cumulative);
+                daily.add(dayData);
+            }
+            
+            Map<String, Object> window = new HashMap<>();
+            window.put("from", fromDate.toString());
+            window.put("to", toDate.toString());
+            window.put("registrations", registrationCounters.between(fromDate, toDate));
+            window.put("cumulativeBefore", registrationCounters.cumulative(fromDate.minusDays(1)));
+            window.put("cumulativeAtEnd", cumulative);
+            window.put("growthRate", String.format("%.1f%%", registrationCounters.growthRate(fromDate, toDate)));
+            window.put("daily", daily);
+            trends.put("window", window);
+        }
+        
         return ResponseEntity.ok(trends);
+    } catch (DateTimeParseException e) {
+        return ResponseEntity.badRequest().body(Map.<String, Object>of("error", "Invalid date format. Use YYYY-MM-DD"));
     } catch (Exception e) {
         System.err.println("Error getting patient registration trends: " + e.getMessage());
         return ResponseEntity.status(500).body(null);
     }
 }
 
-// Helper method to get registration date from patient
-private LocalDate getRegistrationDate(Patient patient) {
-    if (patient.getCreatedAt() != null) {
-        return patient.getCreatedAt().toLocalDate();
-    }
-    if (patient.getRegistrationDate() != null) {
-        return patient.getRegistrationDate();
-    }
-    return null;
-}
-
 
 
 
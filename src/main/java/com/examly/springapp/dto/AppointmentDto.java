@@ -1,11 +1,17 @@
 package com.examly.springapp.dto;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 import com.examly.springapp.model.Appointment;
 import com.examly.springapp.model.AppointmentStatus;
 
+/**
+ * What appointment lists show. Also selected directly by constructor-expression queries
+ * in AppointmentRepository, so list pages never load Patient or Doctor entities.
+ * patient and doctor keep the nested shape the views read, with only the fields they show.
+ */
 public record AppointmentDto(
         Long id,
         Long patientId,
@@ -13,8 +19,23 @@ public record AppointmentDto(
         LocalDate appointmentDate,
         LocalTime appointmentTime,
         AppointmentStatus status,
-        String reason // NEW
+        String reason, // NEW
+        LocalDateTime createdAt,
+        PatientSummary patient,
+        DoctorSummary doctor
 ) {
+    public record PatientSummary(Long id, String name) {}
+
+    public record DoctorSummary(Long id, String name, String specialization) {}
+
+    // Flat form selected by the constructor-expression queries
+    public AppointmentDto(Long id, Long patientId, Long doctorId, LocalDate appointmentDate, LocalTime appointmentTime,
+                          AppointmentStatus status, String reason, LocalDateTime createdAt,
+                          String patientName, String doctorName, String doctorSpecialization) {
+        this(id, patientId, doctorId, appointmentDate, appointmentTime, status, reason, createdAt,
+                new PatientSummary(patientId, patientName), new DoctorSummary(doctorId, doctorName, doctorSpecialization));
+    }
+
     public static AppointmentDto from(Appointment a) {
         return new AppointmentDto(
                 a.getId(),
@@ -23,7 +44,11 @@ public record AppointmentDto(
                 a.getAppointmentDate(),
                 a.getAppointmentTime(),
                 a.getStatus(),
-                a.getReason() // NEW
+                a.getReason(), // NEW
+                a.getCreatedAt(),
+                a.getPatient().getName(),
+                a.getDoctor().getName(),
+                a.getDoctor().getSpecialization()
         );
     }
 }
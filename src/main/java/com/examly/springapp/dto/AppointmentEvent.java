@@ -0,0 +1,52 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Objects;
+
+import com.examly.springapp.model.AppointmentStatus;
+
+/**
+ * One appointment change pushed to live dashboards: where the appointment stood before
+ * (all null when it is new) and after (all null when it was deleted), so a dashboard can
+ * move its counts from one bucket to the other.
+ */
+public record AppointmentEvent(
+        long seq, // increases by one per committed change, across all appointments
+        Type type,
+        Long appointmentId,
+        Long doctorId,
+        Long patientId,
+        AppointmentStatus previousStatus,
+        LocalDate previousDate,
+        LocalTime previousTime,
+        AppointmentStatus status,
+        LocalDate date,
+        LocalTime time,
+        Double consultationFee,
+        LocalDateTime at
+) {
+    public enum Type { BOOKED, APPROVED, REJECTED, COMPLETED, CANCELLED, MOVED, DELETED }
+
+    public AppointmentEvent withSeq(long seq) {
+        return new AppointmentEvent(seq, type, appointmentId, doctorId, patientId,
+                previousStatus, previousDate, previousTime, status, date, time, consultationFee, at);
+    }
+
+    /**
+     * This change followed by a later one to the same appointment, as a single change
+     */
+    public AppointmentEvent mergedWith(AppointmentEvent later) {
+        return new AppointmentEvent(later.seq, later.type, appointmentId, doctorId, patientId,
+                previousStatus, previousDate, previousTime, later.status, later.date, later.time,
+                later.consultationFee, later.at);
+    }
+
+    /**
+     * Whether the appointment ended up where it started, so there is nothing to send
+     */
+    public boolean isNoop() {
+        return previousStatus == status && Objects.equals(previousDate, date) && Objects.equals(previousTime, time);
+    }
+}
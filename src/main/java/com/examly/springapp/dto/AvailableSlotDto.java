@@ -0,0 +1,13 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDate;
+
+public record AvailableSlotDto(
+        Long doctorId,
+        String doctorName,
+        String specialization,
+        String clinicName,
+        LocalDate date,
+        String time // "HH:mm", same format as DoctorAvailability.timeSlots
+) {
+}
@@ -0,0 +1,13 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record BulkBookingItem(
+        Long patientId,
+        Long doctorId,
+        LocalDate appointmentDate,
+        LocalTime appointmentTime,
+        String reason
+) {
+}
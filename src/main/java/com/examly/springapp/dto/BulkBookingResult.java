@@ -0,0 +1,22 @@
+package com.examly.springapp.dto;
+
+public record BulkBookingResult(
+        int index, // position of the item in the request
+        Outcome outcome,
+        Long appointmentId, // set when BOOKED
+        String error // set otherwise
+) {
+    public enum Outcome { BOOKED, CONFLICT, INVALID }
+
+    public static BulkBookingResult booked(int index, Long appointmentId) {
+        return new BulkBookingResult(index, Outcome.BOOKED, appointmentId, null);
+    }
+
+    public static BulkBookingResult conflict(int index, String error) {
+        return new BulkBookingResult(index, Outcome.CONFLICT, null, error);
+    }
+
+    public static BulkBookingResult invalid(int index, String error) {
+        return new BulkBookingResult(index, Outcome.INVALID, null, error);
+    }
+}
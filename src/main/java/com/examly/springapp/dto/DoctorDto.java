@@ -2,7 +2,10 @@ package com.examly.springapp.dto;
 
 import com.examly.springapp.model.Doctor;
 
-public record DoctorDto(Long id, String name, String specialization, String email, String phoneNumber) {
+// What the doctor list and picker show; status lets the patient-facing list leave out inactive doctors
+public record DoctorDto(Long id, String name, String specialization, String email, String phoneNumber,
+                        String clinicName, Double consultationFee, String address, String bio,
+                        Integer experienceYears, String qualifications, Doctor.ProfileStatus status) {
     
     public static DoctorDto from(Doctor d) {
         return new DoctorDto(
@@ -10,7 +13,14 @@ public record DoctorDto(Long id, String name, String specialization, String emai
             d.getName(),
             d.getSpecialization(),
             d.getEmail(),
-            d.getPhoneNumber()
+            d.getPhoneNumber(),
+            d.getClinicName(),
+            d.getConsultationFee(),
+            d.getAddress(),
+            d.getBio(),
+            d.getExperienceYears(),
+            d.getQualifications(),
+            d.getStatus()
         );
     }
 }
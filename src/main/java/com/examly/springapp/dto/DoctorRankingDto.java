@@ -0,0 +1,11 @@
+package com.examly.springapp.dto;
+
+public record DoctorRankingDto(
+        Long id,
+        String name,
+        String specialization,
+        long totalAppointments,
+        long completedAppointments,
+        long completionRate // percent, rounded
+) {
+}
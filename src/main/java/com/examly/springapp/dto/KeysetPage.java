@@ -0,0 +1,26 @@
+package com.examly.springapp.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated list. nextCursor is an opaque token to pass back as
+ * ?cursor= for the following page; it is null on the last page.
+ */
+public record KeysetPage<T>(
+        List<T> items,
+        String nextCursor,
+        int size // page size that was applied
+) {
+    /**
+     * Build a page from a query that fetched one row more than the page size, so whether
+     * another page exists is known without a count query
+     */
+    public static <T> KeysetPage<T> of(List<T> fetched, int size, Function<T, String> cursorOf) {
+        if (fetched.size() <= size) {
+            return new KeysetPage<>(fetched, null, size);
+        }
+        List<T> items = fetched.subList(0, size);
+        return new KeysetPage<>(items, cursorOf.apply(items.get(size - 1)), size);
+    }
+}
@@ -0,0 +1,27 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record SeriesBookingRequest(
+        Long patientId, // admin only, patients always book for themselves
+        Long doctorId,
+        LocalDate startDate,
+        LocalTime appointmentTime,
+        Frequency frequency,
+        Integer occurrences,
+        String reason,
+        Boolean partial // true: book the free occurrences even if some conflict
+) {
+    public enum Frequency {
+        WEEKLY, BIWEEKLY, MONTHLY;
+
+        public LocalDate occurrence(LocalDate start, int n) {
+            return switch (this) {
+                case WEEKLY -> start.plusWeeks(n);
+                case BIWEEKLY -> start.plusWeeks(2L * n);
+                case MONTHLY -> start.plusMonths(n);
+            };
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public record SeriesBookingResult(
+        String seriesId, // null when nothing was booked or moved
+        int applied,
+        List<Occurrence> occurrences
+) {
+    public enum Outcome {
+        BOOKED, MOVED, CANCELLED,
+        SKIPPED, // free, but left alone because other occurrences conflict
+        CONFLICT, UNAVAILABLE
+    }
+
+    public record Occurrence(
+            LocalDate date,
+            LocalTime time,
+            Outcome outcome,
+            Long appointmentId,
+            String error
+    ) {
+    }
+
+    public boolean hasConflicts() {
+        return occurrences.stream().anyMatch(o -> o.outcome() == Outcome.CONFLICT || o.outcome() == Outcome.UNAVAILABLE);
+    }
+}
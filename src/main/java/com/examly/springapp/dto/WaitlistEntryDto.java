@@ -0,0 +1,35 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import com.examly.springapp.model.WaitlistEntry;
+
+public record WaitlistEntryDto(
+        Long id,
+        Long patientId,
+        Long doctorId,
+        String doctorName,
+        LocalDate appointmentDate,
+        LocalTime appointmentTime, // null = any slot that day
+        Integer priority,
+        WaitlistEntry.Status status,
+        LocalDateTime createdAt,
+        Long appointmentId
+) {
+    public static WaitlistEntryDto from(WaitlistEntry w) {
+        return new WaitlistEntryDto(
+                w.getId(),
+                w.getPatient().getId(),
+                w.getDoctor().getId(),
+                w.getDoctor().getName(),
+                w.getAppointmentDate(),
+                w.getAppointmentTime(),
+                w.getPriority(),
+                w.getStatus(),
+                w.getCreatedAt(),
+                w.getAppointmentId()
+        );
+    }
+}
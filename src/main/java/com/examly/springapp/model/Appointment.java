@@ -4,8 +4,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -13,9 +15,13 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -26,7 +32,16 @@ import lombok.Builder;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder(builderClassName = "AppointmentBuilder")
-@Table(name = "appointment")
+@Table(name = "appointment", uniqueConstraints = @UniqueConstraint(
+        name = "uk_appointment_active_slot",
+        columnNames = {"doctor_id", "appointment_date", "appointment_time", "slot_active"}),
+        indexes = {
+                @Index(name = "idx_appointment_series", columnList = "series_id"),
+                @Index(name = "idx_appointment_patient_status", columnList = "patient_id, status"),
+                @Index(name = "idx_appointment_status", columnList = "status"),
+                // Keyset pages of all appointments; InnoDB appends the id, which completes the sort key
+                @Index(name = "idx_appointment_date_time", columnList = "appointment_date, appointment_time")
+        })
 public class Appointment {
     
     @Id
@@ -54,4 +69,20 @@ public class Appointment {
     private AppointmentStatus status = AppointmentStatus.PENDING;
     
     private LocalDateTime createdAt = LocalDateTime.now();
+    
+    // Shared by every occurrence of a recurring series, NULL for one-off appointments
+    @Column(name = "series_id", length = 36)
+    private String seriesId;
+    
+    // TRUE while the appointment holds its slot, NULL once cancelled/rejected.
+    // MySQL ignores NULLs in unique keys, so only active appointments collide on uk_appointment_active_slot.
+    @JsonIgnore
+    @Column(name = "slot_active")
+    private Boolean slotActive;
+    
+    @PrePersist
+    @PreUpdate
+    void updateSlotActive() {
+        slotActive = (status != null && status.occupiesSlot()) ? Boolean.TRUE : null;
+    }
 }
\ No newline at end of file
@@ -7,5 +7,12 @@ public enum AppointmentStatus {
     COMPLETED,    // Consultation completed
     CANCELLED,     // Rejected by doctor or cancelled
     APPROVED,
-    REJECTED
+    REJECTED;
+
+    /**
+     * Whether an appointment in this status still holds its doctor's time slot
+     */
+    public boolean occupiesSlot() {
+        return this != CANCELLED && this != REJECTED;
+    }
 }
\ No newline at end of file
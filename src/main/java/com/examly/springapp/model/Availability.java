@@ -1,16 +1,23 @@
 package com.examly.springapp.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
-import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "availability")
 @Table(name = "availability")
 public class Availability {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "availability_ids")
+    @TableGenerator(name = "availability_ids", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "availability", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -21,11 +28,11 @@ public class Availability {
     @Column(name = "day_of_week", nullable = false)
     private String day;
     
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "availability_time_slots", 
-                    joinColumns = @JoinColumn(name = "availability_id"))
-    @Column(name = "time_slot")
-    private List<String> timeSlots = new ArrayList<>();
+    // Minute-of-day bitmap of the slots, one column per doctor-day
+    @JsonIgnore
+    @Convert(converter = SlotMaskConverter.class)
+    @Column(name = "slot_mask", columnDefinition = "VARBINARY(184)")
+    private SlotMask slotMask = SlotMask.EMPTY;
     
     // Constructors
     public Availability() {}
@@ -33,7 +40,7 @@ public class Availability {
     public Availability(Doctor doctor, String day, List<String> timeSlots) {
         this.doctor = doctor;
         this.day = day;
-        this.timeSlots = new ArrayList<>(timeSlots != null ? timeSlots : new ArrayList<>());
+        this.slotMask = SlotMask.of(timeSlots);
     }
     
     // Getters and Setters
@@ -62,11 +69,19 @@ public class Availability {
     }
     
     public List<String> getTimeSlots() {
-        return timeSlots;
+        return slotMask != null ? slotMask.toTimeSlots() : List.of();
     }
     
     public void setTimeSlots(List<String> timeSlots) {
-        this.timeSlots = timeSlots;
+        this.slotMask = SlotMask.of(timeSlots);
+    }
+    
+    public SlotMask getSlotMask() {
+        return slotMask;
+    }
+    
+    public void setSlotMask(SlotMask slotMask) {
+        this.slotMask = slotMask;
     }
     
     @Override
@@ -74,7 +89,7 @@ public class Availability {
         return "Availability{" +
                 "id=" + id +
                 ", day='" + day + '\'' +
-                ", timeSlots=" + timeSlots +
+                ", timeSlots=" + slotMask +
                 '}';
     }
 }
\ No newline at end of file
@@ -6,6 +6,9 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -21,10 +24,20 @@ import lombok.Builder;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor")
+@Table(name = "doctor",
+        uniqueConstraints = @UniqueConstraint(name = "uk_doctor_email", columnNames = "email"),
+        indexes = {
+                @Index(name = "idx_doctor_status", columnList = "status"),
+                @Index(name = "idx_doctor_user", columnList = "user_id")
+        })
 public class Doctor {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "doctor_ids")
+    @TableGenerator(name = "doctor_ids", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "doctor", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Name is required")
@@ -93,6 +106,7 @@ public class Doctor {
     }
 
     @OneToMany(mappedBy = "doctor", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor_availability_slots")
 @JsonManagedReference
 private List<Availability> availabilitySlots;
 
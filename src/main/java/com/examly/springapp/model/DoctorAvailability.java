@@ -2,19 +2,26 @@ package com.examly.springapp.model;
 
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
-import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -25,12 +32,18 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "doctor_availability")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor_availability")
+@Table(name = "doctor_availability",
+        uniqueConstraints = @UniqueConstraint(name = "uk_doctor_availability_day", columnNames = {"doctor_id", "day_of_week"}),
+        indexes = @Index(name = "idx_doctor_availability_day_active", columnList = "day_of_week, is_active"))
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class DoctorAvailability {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "doctor_availability_ids")
+    @TableGenerator(name = "doctor_availability_ids", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "doctor_availability", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -41,15 +54,23 @@ public class DoctorAvailability {
     @Column(nullable = false)
     private String dayOfWeek; // MONDAY, TUESDAY, etc.
     
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(
-        name = "availability_time_slots",
-        joinColumns = @JoinColumn(name = "availability_id")
-    )
-    @Column(name = "time_slot")
-    private List<String> timeSlots;
+    // Minute-of-day bitmap of the bookable slots, one column per doctor-day
+    @JsonIgnore
+    @Builder.Default
+    @Convert(converter = SlotMaskConverter.class)
+    @Column(name = "slot_mask", columnDefinition = "VARBINARY(184)")
+    private SlotMask slotMask = SlotMask.EMPTY;
     
     @Builder.Default
     @Column(nullable = false)
     private Boolean isActive = true;
+    
+    // The API keeps exchanging "HH:mm" strings
+    public List<String> getTimeSlots() {
+        return slotMask != null ? slotMask.toTimeSlots() : List.of();
+    }
+    
+    public void setTimeSlots(List<String> timeSlots) {
+        this.slotMask = SlotMask.of(timeSlots);
+    }
 }
\ No newline at end of file
@@ -15,6 +15,10 @@ import java.util.Collections;
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
+    // EventSource cannot set headers, so this stream takes a stream token as a query parameter
+    private static final String LIVE_DASHBOARD_PATH = "/api/appointments/dashboard/live";
+    private static final String STREAM_TOKEN_PARAM = "access_token";
+
     private final JwtUtil jwtUtil;
 
     public JwtFilter(JwtUtil jwtUtil) {
@@ -39,14 +43,20 @@ public class JwtFilter extends OncePerRequestFilter {
         final String authHeader = request.getHeader("Authorization");
         System.out.println("🔑 JwtFilter - Auth header present: " + (authHeader != null));
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String jwt = authHeader.substring(7);
+        String streamToken = authHeader == null && path.equals(LIVE_DASHBOARD_PATH)
+                ? request.getParameter(STREAM_TOKEN_PARAM) : null;
+
+        if ((authHeader != null && authHeader.startsWith("Bearer ")) || streamToken != null) {
+            String jwt = streamToken != null ? streamToken : authHeader.substring(7);
             System.out.println("🎫 JwtFilter - Extracted JWT (first 20 chars): " + jwt.substring(0, Math.min(jwt.length(), 20)) + "...");
             
             try {
                 System.out.println("⚡ JwtFilter - Validating token...");
                 
-                if (jwtUtil.isTokenValid(jwt)) {
+                // Stream tokens are good for the live dashboard only, and only they are accepted in the URL
+                String scope = jwtUtil.extractClaim(jwt, JwtUtil.SCOPE_CLAIM);
+                boolean streamScoped = JwtUtil.LIVE_DASHBOARD_SCOPE.equals(scope);
+                if (jwtUtil.isTokenValid(jwt) && streamScoped == (streamToken != null)) {
                     System.out.println("✅ JwtFilter - Token is valid");
                     
                     String username = jwtUtil.extractUsername(jwt);
@@ -15,6 +15,11 @@ public class JwtUtil {
 
     private final String SECRET_KEY = "MySuperSecretKeyForJWTGeneration12345";
     private final long EXPIRATION_TIME = 1000 * 60 * 60; // 1 hour
+    private final long STREAM_TOKEN_TIME = 1000 * 60; // 1 minute, only needs to last until the stream is opened
+
+    // Scope claim of stream tokens; JwtFilter accepts them on the live dashboard stream only
+    public static final String SCOPE_CLAIM = "scope";
+    public static final String LIVE_DASHBOARD_SCOPE = "dashboard-live";
 
     private Key getSigningKey() {
         return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
@@ -45,6 +50,22 @@ public String generateToken(String email, Role role) {
             .compact();
 }
 
+    // Short-lived token for the live dashboard stream. Browsers open it with EventSource, which
+    // cannot send an Authorization header, so this token travels in the URL instead
+    public String generateStreamToken(String email, String roleClaim) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("role", roleClaim);
+        claims.put(SCOPE_CLAIM, LIVE_DASHBOARD_SCOPE);
+
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject(email)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + STREAM_TOKEN_TIME))
+                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
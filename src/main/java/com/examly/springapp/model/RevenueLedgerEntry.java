@@ -0,0 +1,74 @@
+package com.examly.springapp.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the append-only revenue ledger: the consultation fee charged when an
+ * appointment was completed, or its reversal when a completed appointment is reopened or
+ * deleted. Rows are never updated, so past revenue keeps the fee that was in effect.
+ */
+@Entity
+@Immutable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "revenue_ledger", indexes = {
+        // amount is included so range sums are answered from the index alone
+        @Index(name = "idx_ledger_date_doctor", columnList = "service_date, doctor_id, amount"),
+        @Index(name = "idx_ledger_doctor_date", columnList = "doctor_id, service_date, amount"),
+        @Index(name = "idx_ledger_appointment", columnList = "appointment_id")
+})
+public class RevenueLedgerEntry {
+
+    public enum Type { CHARGE, REVERSAL }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "revenue_ledger_ids")
+    @TableGenerator(name = "revenue_ledger_ids", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "revenue_ledger", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "appointment_id", nullable = false, updatable = false)
+    private Long appointmentId;
+
+    @Column(name = "doctor_id", nullable = false, updatable = false)
+    private Long doctorId;
+
+    // Date and time of the visit, not of the booking
+    @Column(name = "service_date", nullable = false, updatable = false)
+    private LocalDate serviceDate;
+
+    @Column(name = "service_time", updatable = false)
+    private LocalTime serviceTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, updatable = false, length = 16)
+    private Type entryType;
+
+    // Positive for a charge, negative for a reversal
+    @Column(nullable = false, updatable = false)
+    private Double amount;
+
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private LocalDateTime recordedAt;
+}
@@ -0,0 +1,192 @@
+package com.examly.springapp.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable set of minute-of-day slots (0..1439) packed into a 1440-bit mask.
+ * A doctor-day's schedule is stored in a single column instead of one row per slot,
+ * and availability checks become bit tests. The API still exchanges "HH:mm" strings.
+ */
+public final class SlotMask {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int WORDS = (MINUTES_PER_DAY + 63) / 64;
+
+    public static final SlotMask EMPTY = new SlotMask(new long[WORDS]);
+
+    private final long[] words;
+
+    private SlotMask(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Build a mask from "HH:mm" strings. Throws IllegalArgumentException on an unreadable slot.
+     */
+    public static SlotMask of(Collection<String> timeSlots) {
+        if (timeSlots == null || timeSlots.isEmpty()) {
+            return EMPTY;
+        }
+        long[] words = new long[WORDS];
+        for (String slot : timeSlots) {
+            int minute = parseMinute(slot);
+            if (minute < 0) {
+                throw new IllegalArgumentException("Invalid time slot: " + slot);
+            }
+            words[minute >>> 6] |= 1L << minute;
+        }
+        return new SlotMask(words);
+    }
+
+    /**
+     * Build a mask from minutes of the day
+     */
+    public static SlotMask ofMinutes(int... minutes) {
+        long[] words = new long[WORDS];
+        for (int minute : minutes) {
+            words[minute >>> 6] |= 1L << minute;
+        }
+        return new SlotMask(words);
+    }
+
+    public boolean contains(int minuteOfDay) {
+        return minuteOfDay >= 0 && minuteOfDay < MINUTES_PER_DAY
+                && (words[minuteOfDay >>> 6] & (1L << minuteOfDay)) != 0;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Slots set in this mask but not in the other one
+     */
+    public SlotMask without(SlotMask other) {
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = words[i] & ~other.words[i];
+        }
+        return new SlotMask(result);
+    }
+
+    public SlotMask with(int minuteOfDay) {
+        long[] result = words.clone();
+        result[minuteOfDay >>> 6] |= 1L << minuteOfDay;
+        return new SlotMask(result);
+    }
+
+    public SlotMask withoutMinute(int minuteOfDay) {
+        long[] result = words.clone();
+        result[minuteOfDay >>> 6] &= ~(1L << minuteOfDay);
+        return new SlotMask(result);
+    }
+
+    /**
+     * Set minutes in ascending order
+     */
+    public int[] minutes() {
+        int[] result = new int[size()];
+        int n = 0;
+        for (int i = 0; i < WORDS; i++) {
+            long word = words[i];
+            while (word != 0) {
+                result[n++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Slots as sorted "HH:mm" strings
+     */
+    public List<String> toTimeSlots() {
+        int[] minutes = minutes();
+        List<String> slots = new ArrayList<>(minutes.length);
+        for (int minute : minutes) {
+            slots.add(format(minute));
+        }
+        return slots;
+    }
+
+    /**
+     * Column form: little-endian words with trailing empty words dropped
+     */
+    public byte[] toBytes() {
+        int used = WORDS;
+        while (used > 0 && words[used - 1] == 0) {
+            used--;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(used * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < used; i++) {
+            buffer.putLong(words[i]);
+        }
+        return buffer.array();
+    }
+
+    public static SlotMask fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return EMPTY;
+        }
+        long[] words = new long[WORDS];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < WORDS && buffer.remaining() >= Long.BYTES; i++) {
+            words[i] = buffer.getLong();
+        }
+        return new SlotMask(words);
+    }
+
+    /**
+     * "9:00" / "09:00" / "09:00:00" -> 540, or -1 if the slot cannot be read
+     */
+    public static int parseMinute(String timeSlot) {
+        if (timeSlot == null) {
+            return -1;
+        }
+        try {
+            String[] parts = timeSlot.trim().split(":");
+            int hour = Integer.parseInt(parts[0]);
+            int minute = Integer.parseInt(parts[1]);
+            return (hour >= 0 && hour < 24 && minute >= 0 && minute < 60) ? hour * 60 + minute : -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    public static String format(int minuteOfDay) {
+        return String.format("%02d:%02d", minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SlotMask other && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return toTimeSlots().toString();
+    }
+}
@@ -0,0 +1,18 @@
+package com.examly.springapp.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class SlotMaskConverter implements AttributeConverter<SlotMask, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(SlotMask mask) {
+        return mask == null ? null : mask.toBytes();
+    }
+
+    @Override
+    public SlotMask convertToEntityAttribute(byte[] column) {
+        return SlotMask.fromBytes(column);
+    }
+}
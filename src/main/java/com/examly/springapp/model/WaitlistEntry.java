@@ -0,0 +1,77 @@
+package com.examly.springapp.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "appointment_waitlist", indexes = @Index(
+        name = "idx_waitlist_doctor_date_status",
+        columnList = "doctor_id, appointment_date, status"))
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "appointment_waitlist_ids")
+    @TableGenerator(name = "appointment_waitlist_ids", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "appointment_waitlist", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private Doctor doctor;
+
+    @Column(name = "appointment_date", nullable = false)
+    private LocalDate appointmentDate;
+
+    // NULL means any slot of the day will do
+    @Column(name = "appointment_time")
+    private LocalTime appointmentTime;
+
+    private String reason;
+
+    // Higher goes first; equal priorities are served first come, first served
+    @Builder.Default
+    private Integer priority = 0;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.WAITING;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Set once the entry has been turned into an appointment
+    private Long appointmentId;
+    private LocalDateTime promotedAt;
+
+    public enum Status {
+        WAITING, PROMOTED, LEFT
+    }
+}
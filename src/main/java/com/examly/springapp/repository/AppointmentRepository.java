@@ -2,12 +2,17 @@ package com.examly.springapp.repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.examly.springapp.dto.AppointmentDto;
 import com.examly.springapp.model.Appointment;
 import com.examly.springapp.model.AppointmentStatus;
 import com.examly.springapp.model.Doctor;
@@ -17,6 +22,82 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     
     boolean existsByDoctorAndAppointmentDateAndAppointmentTime(Doctor doctor, LocalDate date, LocalTime time);
     
+    // Times still taken on a doctor's day (cancelled/rejected appointments free their slot)
+    @Query("SELECT a.appointmentTime FROM Appointment a WHERE a.doctor.id = :doctorId AND a.appointmentDate = :date " +
+           "AND a.status NOT IN (com.examly.springapp.model.AppointmentStatus.CANCELLED, com.examly.springapp.model.AppointmentStatus.REJECTED)")
+    List<LocalTime> findOccupiedTimes(@Param("doctorId") Long doctorId, @Param("date") LocalDate date);
+    
+    // Occurrences of a series from a date on that can still be cancelled or moved
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.patient JOIN FETCH a.doctor WHERE a.seriesId = :seriesId " +
+           "AND a.appointmentDate >= :from " +
+           "AND a.status NOT IN (com.examly.springapp.model.AppointmentStatus.COMPLETED, " +
+           "com.examly.springapp.model.AppointmentStatus.CANCELLED, com.examly.springapp.model.AppointmentStatus.REJECTED) " +
+           "ORDER BY a.appointmentDate")
+    List<Appointment> findOpenSeriesOccurrences(@Param("seriesId") String seriesId, @Param("from") LocalDate from);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.status = com.examly.springapp.model.AppointmentStatus.CANCELLED, a.slotActive = NULL WHERE a.id IN :ids")
+    int cancelAll(@Param("ids") Collection<Long> ids);
+    
+    // Moving is two statements so rows of the same series can take each other's old slots
+    // without tripping uk_appointment_active_slot halfway through
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.slotActive = NULL WHERE a.id IN :ids")
+    int releaseSlots(@Param("ids") Collection<Long> ids);
+
+    
+    // [date, status, doctorId, count] for every bucket, used to rebuild AppointmentCounters
+    @Query("SELECT a.appointmentDate, a.status, a.doctor.id, COUNT(a) FROM Appointment a " +
+           "GROUP BY a.appointmentDate, a.status, a.doctor.id")
+    List<Object[]> countByDayStatusAndDoctor();
+
+    // [date, hour, doctorId, status, count] for every hour bucket, used to rebuild AppointmentHourlyRollup
+    @Query("SELECT a.appointmentDate, EXTRACT(HOUR FROM a.appointmentTime), a.doctor.id, a.status, COUNT(a) " +
+           "FROM Appointment a " +
+           "GROUP BY a.appointmentDate, EXTRACT(HOUR FROM a.appointmentTime), a.doctor.id, a.status")
+    List<Object[]> countByHourDoctorAndStatus();
+    
+    // [doctorId, total, completed] per doctor with appointments in the range (either bound may be NULL)
+    @Query("SELECT a.doctor.id, COUNT(a), " +
+           "SUM(CASE WHEN a.status = com.examly.springapp.model.AppointmentStatus.COMPLETED THEN 1 ELSE 0 END) " +
+           "FROM Appointment a WHERE (:from IS NULL OR a.appointmentDate >= :from) AND (:to IS NULL OR a.appointmentDate <= :to) " +
+           "GROUP BY a.doctor.id")
+    List<Object[]> countByDoctorBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Query("SELECT COUNT(DISTINCT a.doctor.id) FROM Appointment a WHERE a.appointmentDate >= :since")
+    long countDoctorsWithAppointmentsSince(@Param("since") LocalDate since);
+    
+    // Whether the patient already has a live appointment with this doctor on this date
+    @Query("SELECT COUNT(a) > 0 FROM Appointment a WHERE a.patient.id = :patientId AND a.doctor.id = :doctorId " +
+           "AND a.appointmentDate = :date " +
+           "AND a.status NOT IN (com.examly.springapp.model.AppointmentStatus.CANCELLED, com.examly.springapp.model.AppointmentStatus.REJECTED)")
+    boolean existsActiveForPatient(@Param("patientId") Long patientId, @Param("doctorId") Long doctorId, @Param("date") LocalDate date);
+    
+    // [date, time] of every taken slot of one doctor in the range, used to build FreeSlotCalendar
+    @Query("SELECT a.appointmentDate, a.appointmentTime FROM Appointment a WHERE a.doctor.id = :doctorId " +
+           "AND a.appointmentDate BETWEEN :from AND :to " +
+           "AND a.status NOT IN (com.examly.springapp.model.AppointmentStatus.CANCELLED, com.examly.springapp.model.AppointmentStatus.REJECTED)")
+    List<Object[]> findOccupiedSlotsForDoctor(@Param("doctorId") Long doctorId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    // [doctorId, date, time] of every taken slot of these doctors in the range, for bulk conflict checks
+    @Query("SELECT a.doctor.id, a.appointmentDate, a.appointmentTime FROM Appointment a WHERE a.doctor.id IN :doctorIds " +
+           "AND a.appointmentDate BETWEEN :from AND :to " +
+           "AND a.status NOT IN (com.examly.springapp.model.AppointmentStatus.CANCELLED, com.examly.springapp.model.AppointmentStatus.REJECTED)")
+    List<Object[]> findOccupiedSlotsForDoctors(@Param("doctorIds") Collection<Long> doctorIds,
+                                               @Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    // [doctorId, date, time] of every taken slot in the range, for the same doctor filter as findActiveForSlotSearch
+    @Query("SELECT a.doctor.id, a.appointmentDate, a.appointmentTime FROM Appointment a JOIN a.doctor d " +
+           "WHERE a.appointmentDate BETWEEN :from AND :to " +
+           "AND a.status NOT IN (com.examly.springapp.model.AppointmentStatus.CANCELLED, com.examly.springapp.model.AppointmentStatus.REJECTED) " +
+           "AND d.status = com.examly.springapp.model.Doctor.ProfileStatus.ACTIVE " +
+           "AND LOWER(d.specialization) LIKE LOWER(CONCAT('%', :specialization, '%')) " +
+           "AND (:clinicName IS NULL OR LOWER(d.clinicName) LIKE LOWER(CONCAT('%', :clinicName, '%')))")
+    List<Object[]> findOccupiedSlotsForSearch(@Param("specialization") String specialization,
+                                              @Param("clinicName") String clinicName,
+                                              @Param("from") LocalDate from,
+                                              @Param("to") LocalDate to);
+    
     // CRITICAL: Add JOIN FETCH to ensure doctor and patient data is loaded
     @Query("SELECT a FROM Appointment a JOIN FETCH a.patient JOIN FETCH a.doctor WHERE a.patient = :patient")
     List<Appointment> findByPatient(@Param("patient") Patient patient);
@@ -28,6 +109,48 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     @Query("SELECT a FROM Appointment a JOIN FETCH a.patient JOIN FETCH a.doctor")
     List<Appointment> findAllWithDetails();
     
+    // Newest first by creation time (NULL createdAt sorts last), served by idx_appointment_created
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.patient JOIN FETCH a.doctor ORDER BY a.createdAt DESC")
+    List<Appointment> findMostRecentlyCreated(Pageable page);
+    
+    // ------------------ KEYSET PAGES, ordered by (appointmentDate, appointmentTime, id) ------------------
+    // Selected straight into AppointmentDto: only the listed columns are read and nothing enters the persistence context.
+    // Both MySQL and H2 sort NULLs first, so a NULL date or time in the key continues with the NULL rows it is part of
+    // before moving on to the non-NULL ones.
+    @Query("SELECT new com.examly.springapp.dto.AppointmentDto(a.id, p.id, d.id, a.appointmentDate, a.appointmentTime, " +
+           "a.status, a.reason, a.createdAt, p.name, d.name, d.specialization) " +
+           "FROM Appointment a JOIN a.patient p JOIN a.doctor d " +
+           "ORDER BY a.appointmentDate, a.appointmentTime, a.id")
+    List<AppointmentDto> findSummaryPage(Pageable page);
+
+    @Query("SELECT new com.examly.springapp.dto.AppointmentDto(a.id, p.id, d.id, a.appointmentDate, a.appointmentTime, " +
+           "a.status, a.reason, a.createdAt, p.name, d.name, d.specialization) " +
+           "FROM Appointment a JOIN a.patient p JOIN a.doctor d " +
+           "WHERE a.appointmentDate > :date OR (:date IS NULL AND a.appointmentDate IS NOT NULL) " +
+           "OR ((a.appointmentDate = :date OR (:date IS NULL AND a.appointmentDate IS NULL)) " +
+           "AND (a.appointmentTime > :time OR (:time IS NULL AND a.appointmentTime IS NOT NULL) " +
+           "OR ((a.appointmentTime = :time OR (:time IS NULL AND a.appointmentTime IS NULL)) AND a.id > :id))) " +
+           "ORDER BY a.appointmentDate, a.appointmentTime, a.id")
+    List<AppointmentDto> findSummaryPageAfter(@Param("date") LocalDate date, @Param("time") LocalTime time,
+                                              @Param("id") Long id, Pageable page);
+
+    @Query("SELECT new com.examly.springapp.dto.AppointmentDto(a.id, p.id, d.id, a.appointmentDate, a.appointmentTime, " +
+           "a.status, a.reason, a.createdAt, p.name, d.name, d.specialization) " +
+           "FROM Appointment a JOIN a.patient p JOIN a.doctor d WHERE d.id = :doctorId " +
+           "ORDER BY a.appointmentDate, a.appointmentTime, a.id")
+    List<AppointmentDto> findSummaryPageByDoctor(@Param("doctorId") Long doctorId, Pageable page);
+
+    @Query("SELECT new com.examly.springapp.dto.AppointmentDto(a.id, p.id, d.id, a.appointmentDate, a.appointmentTime, " +
+           "a.status, a.reason, a.createdAt, p.name, d.name, d.specialization) " +
+           "FROM Appointment a JOIN a.patient p JOIN a.doctor d WHERE d.id = :doctorId " +
+           "AND (a.appointmentDate > :date OR (:date IS NULL AND a.appointmentDate IS NOT NULL) " +
+           "OR ((a.appointmentDate = :date OR (:date IS NULL AND a.appointmentDate IS NULL)) " +
+           "AND (a.appointmentTime > :time OR (:time IS NULL AND a.appointmentTime IS NOT NULL) " +
+           "OR ((a.appointmentTime = :time OR (:time IS NULL AND a.appointmentTime IS NULL)) AND a.id > :id)))) " +
+           "ORDER BY a.appointmentDate, a.appointmentTime, a.id")
+    List<AppointmentDto> findSummaryPageByDoctorAfter(@Param("doctorId") Long doctorId, @Param("date") LocalDate date,
+                                                      @Param("time") LocalTime time, @Param("id") Long id, Pageable page);
+
     @Query("SELECT a FROM Appointment a JOIN FETCH a.patient JOIN FETCH a.doctor WHERE a.appointmentDate BETWEEN :startDate AND :endDate")
     List<Appointment> findByAppointmentDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
@@ -2,13 +2,17 @@ package com.examly.springapp.repository;
 
 import com.examly.springapp.model.Availability;
 import com.examly.springapp.model.Doctor;
+import com.examly.springapp.model.SlotMask;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
+
 import java.util.List;
 
 @Repository
@@ -17,11 +21,15 @@ public interface AvailabilityRepository extends JpaRepository<Availability, Long
     /**
      * Find all availability slots for a specific doctor
      */
+    @QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                  @QueryHint(name = "org.hibernate.cacheRegion", value = "availability_queries") })
     List<Availability> findByDoctorId(Long doctorId);
     
     /**
      * Find availability for a specific doctor on a specific day
      */
+    @QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                  @QueryHint(name = "org.hibernate.cacheRegion", value = "availability_queries") })
     List<Availability> findByDoctorIdAndDay(Long doctorId, String day);
     
     /**
@@ -38,19 +46,53 @@ public interface AvailabilityRepository extends JpaRepository<Availability, Long
     @Transactional
     void deleteByDoctorIdAndDay(Long doctorId, String day);
     
+    /**
+     * Find all availability rows for a specific day
+     */
+    @QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                  @QueryHint(name = "org.hibernate.cacheRegion", value = "availability_queries") })
+    List<Availability> findByDay(String day);
+    
     /**
      * Check if doctor has availability on a specific day and time
      */
-    @Query("SELECT COUNT(a) > 0 FROM Availability a JOIN a.timeSlots ts " +
-           "WHERE a.doctor.id = :doctorId AND a.day = :day AND ts = :timeSlot")
-    boolean existsByDoctorIdAndDayAndTimeSlot(@Param("doctorId") Long doctorId, 
-                                            @Param("day") String day, 
-                                            @Param("timeSlot") String timeSlot);
+    default boolean existsByDoctorIdAndDayAndTimeSlot(Long doctorId, String day, String timeSlot) {
+        int minute = SlotMask.parseMinute(timeSlot);
+        return minute >= 0 && countWithSlot(doctorId, day, maskByte(minute), maskBit(minute)) > 0;
+    }
     
     /**
      * Find all doctors who are available on a specific day and time
      */
-    @Query("SELECT DISTINCT a.doctor FROM Availability a JOIN a.timeSlots ts " +
-           "WHERE a.day = :day AND ts = :timeSlot")
-    List<Doctor> findDoctorsAvailableAt(@Param("day") String day, @Param("timeSlot") String timeSlot);
-}
\ No newline at end of file
+    default List<Doctor> findDoctorsAvailableAt(String day, String timeSlot) {
+        int minute = SlotMask.parseMinute(timeSlot);
+        if (minute < 0) {
+            return List.of();
+        }
+        List<Long> doctorIds = findDoctorIdsWithSlot(day, maskByte(minute), maskBit(minute));
+        return doctorIds.isEmpty() ? List.of() : findDoctorsByIdIn(doctorIds);
+    }
+    
+    // slot_mask holds little-endian words, so a minute is bit (minute % 8) of byte (minute / 8);
+    // the bit is tested in SQL by dividing the byte value by the bit's weight
+    @Query(value = "SELECT COUNT(*) FROM availability a WHERE a.doctor_id = :doctorId AND a.day_of_week = :day " +
+                   "AND MOD(FLOOR(ASCII(SUBSTRING(a.slot_mask, :byteIndex, 1)) / :bit), 2) = 1", nativeQuery = true)
+    long countWithSlot(@Param("doctorId") Long doctorId, @Param("day") String day,
+                       @Param("byteIndex") int byteIndex, @Param("bit") int bit);
+    
+    @Query(value = "SELECT DISTINCT a.doctor_id FROM availability a WHERE a.day_of_week = :day " +
+                   "AND MOD(FLOOR(ASCII(SUBSTRING(a.slot_mask, :byteIndex, 1)) / :bit), 2) = 1", nativeQuery = true)
+    List<Long> findDoctorIdsWithSlot(@Param("day") String day, @Param("byteIndex") int byteIndex, @Param("bit") int bit);
+    
+    @Query("SELECT d FROM Doctor d WHERE d.id IN :ids")
+    List<Doctor> findDoctorsByIdIn(@Param("ids") List<Long> ids);
+    
+    // 1-based position of the minute's byte in slot_mask
+    private static int maskByte(int minute) {
+        return (minute >>> 3) + 1;
+    }
+    
+    private static int maskBit(int minute) {
+        return 1 << (minute & 7);
+    }
+}
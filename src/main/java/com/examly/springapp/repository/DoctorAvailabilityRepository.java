@@ -3,30 +3,51 @@ package com.examly.springapp.repository;
 import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.examly.springapp.model.Doctor;
 import com.examly.springapp.model.DoctorAvailability;
 
+// Weekly schedule reads are served from the query cache, rows from the doctor_availability region
 public interface DoctorAvailabilityRepository extends JpaRepository<DoctorAvailability, Long> {
     
+    @QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                  @QueryHint(name = "org.hibernate.cacheRegion", value = "availability_queries") })
     List<DoctorAvailability> findByDoctorAndIsActive(Doctor doctor, Boolean isActive);
     
+    @QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                  @QueryHint(name = "org.hibernate.cacheRegion", value = "availability_queries") })
     List<DoctorAvailability> findByDoctor(Doctor doctor);
     
+    @QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                  @QueryHint(name = "org.hibernate.cacheRegion", value = "availability_queries") })
     Optional<DoctorAvailability> findByDoctorAndDayOfWeek(Doctor doctor, String dayOfWeek);
     
-    @Modifying
-    @Query("DELETE FROM DoctorAvailability da WHERE da.doctor = :doctor")
-    void deleteByDoctor(@Param("doctor") Doctor doctor);
-    
+    @QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                  @QueryHint(name = "org.hibernate.cacheRegion", value = "availability_queries") })
     @Query("SELECT da FROM DoctorAvailability da WHERE da.doctor.id = :doctorId AND da.isActive = true")
     List<DoctorAvailability> findActiveAvailabilityByDoctorId(@Param("doctorId") Long doctorId);
     
     boolean existsByDoctorAndDayOfWeek(Doctor doctor, String dayOfWeek);
 
+    @QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                  @QueryHint(name = "org.hibernate.cacheRegion", value = "availability_queries") })
     List<DoctorAvailability> findByDayOfWeekAndIsActive(String upperCase, boolean b);
+    
+    // [doctorId, dayOfWeek, slotMask] for every active doctor-day, used to build DoctorAvailabilityIndex
+    @Query("SELECT da.doctor.id, da.dayOfWeek, da.slotMask FROM DoctorAvailability da WHERE da.isActive = true")
+    List<Object[]> findActiveSlotEntries();
+    
+    // Active weekly templates of every ACTIVE doctor matching the search, doctors fetched in the same query
+    @Query("SELECT DISTINCT da FROM DoctorAvailability da JOIN FETCH da.doctor d " +
+           "WHERE da.isActive = true AND d.status = com.examly.springapp.model.Doctor.ProfileStatus.ACTIVE " +
+           "AND LOWER(d.specialization) LIKE LOWER(CONCAT('%', :specialization, '%')) " +
+           "AND (:clinicName IS NULL OR LOWER(d.clinicName) LIKE LOWER(CONCAT('%', :clinicName, '%')))")
+    List<DoctorAvailability> findActiveForSlotSearch(@Param("specialization") String specialization,
+                                                     @Param("clinicName") String clinicName);
 }
\ No newline at end of file
@@ -4,16 +4,31 @@ package com.examly.springapp.repository;
 import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import com.examly.springapp.dto.DoctorDto;
 import com.examly.springapp.model.Doctor;
 import com.examly.springapp.model.Doctor.ProfileStatus;
 
+// Lookups run on most requests (the caller's own profile, ownership checks, search filters) go through
+// the query cache; any write to the doctor table invalidates their cached results
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     
+    @QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                  @QueryHint(name = "org.hibernate.cacheRegion", value = "doctor_queries") })
     Optional<Doctor> findByEmail(String email);
+
+    // Keyset page ordered by id, selected straight into DoctorDto
+    @Query("SELECT new com.examly.springapp.dto.DoctorDto(d.id, d.name, d.specialization, d.email, d.phoneNumber, " +
+           "d.clinicName, d.consultationFee, d.address, d.bio, d.experienceYears, d.qualifications, d.status) " +
+           "FROM Doctor d WHERE d.id > :afterId ORDER BY d.id")
+    List<DoctorDto> findSummaryPageAfter(@Param("afterId") Long afterId, Pageable page);
     
     // New methods for FR2
     List<Doctor> findByStatus(ProfileStatus status);
@@ -22,6 +37,8 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     
     List<Doctor> findByClinicNameContainingIgnoreCase(String clinicName);
     
+    @QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                  @QueryHint(name = "org.hibernate.cacheRegion", value = "doctor_queries") })
     @Query("SELECT d FROM Doctor d WHERE d.userId = :userId")
     Optional<Doctor> findByUserId(@Param("userId") Long userId);
     
@@ -31,9 +48,17 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     @Query("SELECT COUNT(d) FROM Doctor d WHERE d.status = :status")
     long countByStatus(@Param("status") ProfileStatus status);
     
+    @QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                  @QueryHint(name = "org.hibernate.cacheRegion", value = "doctor_queries") })
     @Query("SELECT DISTINCT d.specialization FROM Doctor d WHERE d.specialization IS NOT NULL AND d.status = 'ACTIVE'")
     List<String> findActiveSpecializations();
     
+    @QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                  @QueryHint(name = "org.hibernate.cacheRegion", value = "doctor_queries") })
     @Query("SELECT DISTINCT d.clinicName FROM Doctor d WHERE d.clinicName IS NOT NULL AND d.status = 'ACTIVE'")
     List<String> findActiveClinicNames();
+    
+    // [specialization, count] for the admin doctor stats
+    @Query("SELECT d.specialization, COUNT(d) FROM Doctor d WHERE d.specialization IS NOT NULL GROUP BY d.specialization")
+    List<Object[]> countBySpecialization();
 }
\ No newline at end of file
@@ -3,10 +3,12 @@ package com.examly.springapp.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.examly.springapp.dto.PatientDto;
 import com.examly.springapp.model.Patient;
 
 public interface PatientRepository extends JpaRepository<Patient,Long>{
@@ -15,4 +17,19 @@ public interface PatientRepository extends JpaRepository<Patient,Long>{
 
     @Query("SELECT DISTINCT a.patient FROM Appointment a WHERE a.doctor.id = :doctorId")
     List<Patient> findPatientsByDoctorId(@Param("doctorId") Long doctorId);
+
+    // ------------------ KEYSET PAGES, ordered by id, selected straight into PatientDto ------------------
+    @Query("SELECT new com.examly.springapp.dto.PatientDto(p.id, p.name, p.email, p.phoneNumber, p.dateOfBirth) " +
+           "FROM Patient p WHERE p.id > :afterId ORDER BY p.id")
+    List<PatientDto> findSummaryPageAfter(@Param("afterId") Long afterId, Pageable page);
+
+    @Query("SELECT new com.examly.springapp.dto.PatientDto(p.id, p.name, p.email, p.phoneNumber, p.dateOfBirth) " +
+           "FROM Patient p WHERE p.id > :afterId " +
+           "AND EXISTS (SELECT 1 FROM Appointment a WHERE a.patient = p AND a.doctor.id = :doctorId) ORDER BY p.id")
+    List<PatientDto> findSummaryPageByDoctorIdAfter(@Param("doctorId") Long doctorId, @Param("afterId") Long afterId, Pageable page);
+
+    // [registration day, count]; the day is the creation date, else registration_date, else NULL
+    @Query("SELECT COALESCE(CAST(p.createdAt AS LocalDate), p.registrationDate), COUNT(p) FROM Patient p " +
+           "GROUP BY COALESCE(CAST(p.createdAt AS LocalDate), p.registrationDate)")
+    List<Object[]> countByRegistrationDay();
 }
@@ -0,0 +1,25 @@
+package com.examly.springapp.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.examly.springapp.model.RevenueLedgerEntry;
+
+public interface RevenueLedgerRepository extends JpaRepository<RevenueLedgerEntry, Long> {
+
+    // Net amount booked against one appointment (charges minus reversals)
+    @Query("SELECT COALESCE(SUM(l.amount), 0) FROM RevenueLedgerEntry l WHERE l.appointmentId = :appointmentId")
+    double netForAppointment(@Param("appointmentId") Long appointmentId);
+
+    @Query("SELECT COALESCE(SUM(l.amount), 0) FROM RevenueLedgerEntry l WHERE l.serviceDate BETWEEN :from AND :to")
+    double sumBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // [date, hour, doctorId, amount] for every hour bucket, used to rebuild AppointmentHourlyRollup
+    @Query("SELECT l.serviceDate, EXTRACT(HOUR FROM l.serviceTime), l.doctorId, SUM(l.amount) FROM RevenueLedgerEntry l " +
+           "GROUP BY l.serviceDate, EXTRACT(HOUR FROM l.serviceTime), l.doctorId")
+    List<Object[]> sumByHourAndDoctor();
+}
@@ -0,0 +1,29 @@
+package com.examly.springapp.repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.examly.springapp.model.WaitlistEntry;
+
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // Waiting entries of one doctor-day, used to build WaitlistQueue
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.doctor.id = :doctorId AND w.appointmentDate = :date " +
+           "AND w.status = com.examly.springapp.model.WaitlistEntry.Status.WAITING")
+    List<WaitlistEntry> findWaiting(@Param("doctorId") Long doctorId, @Param("date") LocalDate date);
+
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.patient.id = :patientId " +
+           "AND w.status = com.examly.springapp.model.WaitlistEntry.Status.WAITING ORDER BY w.appointmentDate, w.appointmentTime")
+    List<WaitlistEntry> findWaitingByPatient(@Param("patientId") Long patientId);
+
+    @Query("SELECT COUNT(w) > 0 FROM WaitlistEntry w WHERE w.patient.id = :patientId AND w.doctor.id = :doctorId " +
+           "AND w.appointmentDate = :date AND ((:time IS NULL AND w.appointmentTime IS NULL) OR w.appointmentTime = :time) " +
+           "AND w.status = com.examly.springapp.model.WaitlistEntry.Status.WAITING")
+    boolean isWaiting(@Param("patientId") Long patientId, @Param("doctorId") Long doctorId,
+                      @Param("date") LocalDate date, @Param("time") LocalTime time);
+}
@@ -0,0 +1,75 @@
+package com.examly.springapp.service;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.model.Appointment;
+
+/**
+ * Inserts new appointments with one batched JDBC statement. Appointment ids are
+ * IDENTITY-generated, which stops Hibernate from batching inserts, so bulk bookings
+ * go straight to JDBC and read the generated ids back from the batch.
+ * Runs on the connection of the surrounding transaction.
+ */
+@Component
+public class AppointmentBatchInserter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO appointment (patient_id, doctor_id, appointment_date, appointment_time, reason, status, created_at, slot_active, series_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AppointmentBatchInserter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert all appointments and set their generated ids
+     */
+    public void insert(List<Appointment> appointments) {
+        if (appointments.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Appointment appointment : appointments) {
+                    ps.setLong(1, appointment.getPatient().getId());
+                    ps.setLong(2, appointment.getDoctor().getId());
+                    ps.setDate(3, Date.valueOf(appointment.getAppointmentDate()));
+                    ps.setTime(4, Time.valueOf(appointment.getAppointmentTime()));
+                    ps.setString(5, appointment.getReason());
+                    ps.setString(6, appointment.getStatus().name());
+                    ps.setTimestamp(7, Timestamp.valueOf(appointment.getCreatedAt()));
+                    if (appointment.getStatus().occupiesSlot()) {
+                        ps.setBoolean(8, true);
+                    } else {
+                        ps.setNull(8, Types.BOOLEAN);
+                    }
+                    ps.setString(9, appointment.getSeriesId());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (Appointment appointment : appointments) {
+                        if (keys.next()) {
+                            appointment.setId(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,491 @@
+package com.examly.springapp.service;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.model.Appointment;
+import com.examly.springapp.model.AppointmentStatus;
+
+/**
+ * Every appointment held as one row across primitive column arrays (epoch day, minute of day,
+ * status ordinal, doctor and patient ids), for ad-hoc admin breakdowns by doctor,
+ * specialization, weekday, hour, status, date or month. A query is one pass over the arrays
+ * into a dense count array, so no entities are built and millions of rows take milliseconds.
+ *
+ * Loaded with one streamed JDBC query on first use, then kept current by AppointmentService
+ * and WaitlistService after each commit. Deleted appointments leave a tombstone row until the
+ * next rebuild(). A load runs without the lock, so queries keep answering from the previous
+ * rows meanwhile; changes that commit during it are logged and replayed onto the new rows.
+ */
+@Component
+public class AppointmentColumnStore {
+
+    public enum Dimension { DOCTOR, SPECIALIZATION, WEEKDAY, HOUR, STATUS, DATE, MONTH }
+
+    /**
+     * Rows to count; null fields do not filter. from/to are inclusive, hours are 0-23 inclusive.
+     */
+    public record Filter(LocalDate from, LocalDate to, Set<AppointmentStatus> statuses, Set<Long> doctorIds,
+                         Long patientId, String specialization, Set<DayOfWeek> weekdays,
+                         Integer hourFrom, Integer hourTo) {}
+
+    /**
+     * One group: a value per grouped dimension, in groupBy order, and its row count
+     */
+    public record Group(Map<Dimension, Object> key, long count) {}
+
+    public record Result(List<Group> groups, long matchedRows, long scannedRows, double elapsedMillis) {}
+
+    // Dense count arrays above this size mean the breakdown is too fine to be useful
+    public static final int MAX_GROUPS = 1 << 22;
+
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    private static final byte DELETED = -1;
+    private static final AppointmentStatus[] STATUSES = AppointmentStatus.values();
+
+    private static final String LOAD_SQL =
+            "SELECT id, doctor_id, patient_id, appointment_date, appointment_time, status FROM appointment";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // One load at a time
+    private final Object loadLock = new Object();
+
+    // Guarded by lock; null until first use
+    private Columns columns;
+
+    // Guarded by lock; changes committed while a load is running, null when none is
+    private List<Row> changesDuringLoad;
+
+    public AppointmentColumnStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ------------------ QUERIES ------------------
+    /**
+     * Count matching appointments grouped by the given dimensions, largest groups first.
+     * Throws IllegalArgumentException if the grouping would produce more than MAX_GROUPS cells.
+     */
+    public Result query(Filter filter, List<Dimension> groupBy, int limit) {
+        Map<Long, String> specializationByDoctor = needsSpecializations(filter, groupBy) ? loadSpecializations() : Map.of();
+
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            long start = System.nanoTime();
+
+            // Dense per-query codes for the doctor-based dimensions
+            String[] specializationNames = specializationNames(specializationByDoctor);
+            int[] specializationByCode = new int[c.doctorIdByCode.size()];
+            for (int code = 0; code < specializationByCode.length; code++) {
+                String name = specializationByDoctor.get(c.doctorIdByCode.get(code));
+                specializationByCode[code] = name == null ? specializationNames.length : Arrays.binarySearch(specializationNames, name);
+            }
+
+            // Day range the DATE and MONTH groups span: the filter's from/to, clamped to the data
+            int minDay = 0;
+            int maxDay = 0;
+            if (groupBy.contains(Dimension.DATE) || groupBy.contains(Dimension.MONTH)) {
+                minDay = Integer.MAX_VALUE;
+                maxDay = Integer.MIN_VALUE;
+                for (int r = 0; r < c.size; r++) {
+                    if (c.statuses[r] != DELETED) {
+                        minDay = Math.min(minDay, c.epochDays[r]);
+                        maxDay = Math.max(maxDay, c.epochDays[r]);
+                    }
+                }
+                if (filter.from() != null) {
+                    minDay = (int) Math.max(minDay, filter.from().toEpochDay());
+                }
+                if (filter.to() != null) {
+                    maxDay = (int) Math.min(maxDay, filter.to().toEpochDay());
+                }
+                if (minDay > maxDay) {
+                    minDay = maxDay = 0; // nothing can match
+                }
+            }
+            int firstMonth = monthIndex(minDay);
+
+            // Cardinality of each grouped dimension; the group cell is a mixed-radix number over them
+            int[] radix = new int[groupBy.size()];
+            long cells = 1;
+            for (int d = 0; d < radix.length; d++) {
+                radix[d] = switch (groupBy.get(d)) {
+                    case DOCTOR -> Math.max(1, c.doctorIdByCode.size());
+                    case SPECIALIZATION -> specializationNames.length + 1; // last one is "none"
+                    case WEEKDAY -> 7;
+                    case HOUR -> 24;
+                    case STATUS -> STATUSES.length;
+                    case DATE -> maxDay - minDay + 1;
+                    case MONTH -> monthIndex(maxDay) - firstMonth + 1;
+                };
+                cells *= radix[d];
+                if (cells > MAX_GROUPS) {
+                    throw new IllegalArgumentException("Too many groups, narrow the date range or group by fewer dimensions");
+                }
+            }
+
+            // Filters resolved to lookups before the scan
+            long fromDay = filter.from() == null ? Long.MIN_VALUE : filter.from().toEpochDay();
+            long toDay = filter.to() == null ? Long.MAX_VALUE : filter.to().toEpochDay();
+            int statusMask = 0;
+            if (filter.statuses() != null && !filter.statuses().isEmpty()) {
+                for (AppointmentStatus status : filter.statuses()) {
+                    statusMask |= 1 << status.ordinal();
+                }
+            } else {
+                statusMask = -1;
+            }
+            boolean[] doctorAllowed = null;
+            if ((filter.doctorIds() != null && !filter.doctorIds().isEmpty()) || filter.specialization() != null) {
+                doctorAllowed = new boolean[c.doctorIdByCode.size()];
+                for (int code = 0; code < doctorAllowed.length; code++) {
+                    Long doctorId = c.doctorIdByCode.get(code);
+                    boolean allowed = filter.doctorIds() == null || filter.doctorIds().isEmpty() || filter.doctorIds().contains(doctorId);
+                    if (allowed && filter.specialization() != null) {
+                        String name = specializationByDoctor.get(doctorId);
+                        allowed = name != null && name.equalsIgnoreCase(filter.specialization());
+                    }
+                    doctorAllowed[code] = allowed;
+                }
+            }
+            int weekdayMask = -1;
+            if (filter.weekdays() != null && !filter.weekdays().isEmpty()) {
+                weekdayMask = 0;
+                for (DayOfWeek day : filter.weekdays()) {
+                    weekdayMask |= 1 << (day.getValue() - 1);
+                }
+            }
+            int hourFrom = filter.hourFrom() == null ? 0 : filter.hourFrom();
+            int hourTo = filter.hourTo() == null ? 23 : filter.hourTo();
+            long patientId = filter.patientId() == null ? Long.MIN_VALUE : filter.patientId();
+            boolean byPatient = filter.patientId() != null;
+
+            int[] monthByDay = null;
+            if (groupBy.contains(Dimension.MONTH)) {
+                monthByDay = new int[maxDay - minDay + 1];
+                for (int day = minDay; day <= maxDay; day++) {
+                    monthByDay[day - minDay] = monthIndex(day) - firstMonth;
+                }
+            }
+
+            long[] counts = new long[(int) cells];
+            long matched = 0;
+            long scanned = 0;
+            for (int r = 0; r < c.size; r++) {
+                byte status = c.statuses[r];
+                if (status == DELETED) {
+                    continue;
+                }
+                scanned++;
+                int day = c.epochDays[r];
+                int hour = c.minutes[r] / 60;
+                int weekday = Math.floorMod(day + 3, 7); // 1970-01-01 was a Thursday; Monday = 0
+                if (day < fromDay || day > toDay
+                        || (statusMask & (1 << status)) == 0
+                        || (weekdayMask & (1 << weekday)) == 0
+                        || hour < hourFrom || hour > hourTo
+                        || (doctorAllowed != null && !doctorAllowed[c.doctorCodes[r]])
+                        || (byPatient && c.patientIds[r] != patientId)) {
+                    continue;
+                }
+                int cell = 0;
+                for (int d = 0; d < radix.length; d++) {
+                    int value = switch (groupBy.get(d)) {
+                        case DOCTOR -> c.doctorCodes[r];
+                        case SPECIALIZATION -> specializationByCode[c.doctorCodes[r]];
+                        case WEEKDAY -> weekday;
+                        case HOUR -> hour;
+                        case STATUS -> status;
+                        case DATE -> day - minDay;
+                        case MONTH -> monthByDay[day - minDay];
+                    };
+                    cell = cell * radix[d] + value;
+                }
+                counts[cell]++;
+                matched++;
+            }
+
+            List<Group> groups = new ArrayList<>();
+            for (int cell = 0; cell < counts.length; cell++) {
+                if (counts[cell] == 0) {
+                    continue;
+                }
+                Map<Dimension, Object> key = new LinkedHashMap<>();
+                int rest = cell;
+                Object[] values = new Object[radix.length];
+                for (int d = radix.length - 1; d >= 0; d--) {
+                    int value = rest % radix[d];
+                    rest /= radix[d];
+                    values[d] = switch (groupBy.get(d)) {
+                        case DOCTOR -> c.doctorIdByCode.get(value);
+                        case SPECIALIZATION -> value < specializationNames.length ? specializationNames[value] : null;
+                        case WEEKDAY -> DayOfWeek.of(value + 1);
+                        case HOUR -> value;
+                        case STATUS -> STATUSES[value];
+                        case DATE -> LocalDate.ofEpochDay(minDay + value);
+                        case MONTH -> YearMonth.of(0, 1).plusMonths(firstMonth + value);
+                    };
+                }
+                for (int d = 0; d < radix.length; d++) {
+                    key.put(groupBy.get(d), values[d]);
+                }
+                groups.add(new Group(key, counts[cell]));
+            }
+            groups.sort(Comparator.comparingLong(Group::count).reversed());
+            if (limit > 0 && groups.size() > limit) {
+                groups = new ArrayList<>(groups.subList(0, limit));
+            }
+            return new Result(groups, matched, scanned, (System.nanoTime() - start) / 1_000_000.0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long rowCount() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return columns.live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ------------------ CHANGES (registered to run after commit) ------------------
+    public void created(Appointment appointment) {
+        Row row = Row.of(appointment, appointment.getAppointmentDate(), appointment.getAppointmentTime(), appointment.getStatus());
+        TransactionHooks.afterCommit(() -> apply(row));
+    }
+
+    public void statusChanged(Appointment appointment, AppointmentStatus to) {
+        Row row = Row.of(appointment, appointment.getAppointmentDate(), appointment.getAppointmentTime(), to);
+        TransactionHooks.afterCommit(() -> apply(row));
+    }
+
+    public void moved(Appointment appointment, LocalDate toDate, LocalTime toTime) {
+        Row row = Row.of(appointment, toDate, toTime, appointment.getStatus());
+        TransactionHooks.afterCommit(() -> apply(row));
+    }
+
+    public void removed(Appointment appointment) {
+        Row row = new Row(appointment.getId(), null, null, null, null, null);
+        TransactionHooks.afterCommit(() -> apply(row));
+    }
+
+    private void apply(Row row) {
+        if (row.id() == null || (!row.isRemoval() && (row.date() == null || row.status() == null))) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (columns != null) {
+                row.applyTo(columns);
+            }
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(row);
+            }
+            // neither loaded nor loading: the first query reads this change from the database
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reload every row from the appointment table, dropping tombstones. Queries keep using the
+     * old rows until the new ones, with the changes committed meanwhile replayed, are swapped in;
+     * replaying a change the load already saw is harmless.
+     */
+    public void rebuild() {
+        synchronized (loadLock) {
+            lock.writeLock().lock();
+            try {
+                changesDuringLoad = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Columns fresh = null;
+            try {
+                fresh = load();
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (fresh != null) {
+                        for (Row row : changesDuringLoad) {
+                            row.applyTo(fresh);
+                        }
+                        columns = fresh;
+                    }
+                    changesDuringLoad = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (columns != null) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        synchronized (loadLock) {
+            if (columns == null) {
+                rebuild();
+            }
+        }
+    }
+
+    private Columns load() {
+        Columns fresh = new Columns();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LOAD_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Stream rows instead of buffering the table in the driver: Connector/J needs Integer.MIN_VALUE,
+            // other drivers reject it and take a positive fetch size
+            boolean mysql = connection.getMetaData().getDriverName().toLowerCase().contains("mysql");
+            ps.setFetchSize(mysql ? Integer.MIN_VALUE : 1000);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Date date = rs.getDate(4);
+            String status = rs.getString(6);
+            if (date == null || status == null) {
+                return;
+            }
+            Time time = rs.getTime(5);
+            fresh.put(rs.getLong(1), rs.getLong(2), rs.getLong(3), (int) date.toLocalDate().toEpochDay(),
+                    minuteOf(time == null ? null : time.toLocalTime()), (byte) AppointmentStatus.valueOf(status).ordinal());
+        });
+        return fresh;
+    }
+
+    private static boolean needsSpecializations(Filter filter, List<Dimension> groupBy) {
+        return filter.specialization() != null || groupBy.contains(Dimension.SPECIALIZATION);
+    }
+
+    private Map<Long, String> loadSpecializations() {
+        Map<Long, String> specializations = new HashMap<>();
+        jdbcTemplate.query("SELECT id, specialization FROM doctor", (RowCallbackHandler) rs -> {
+            if (rs.getString(2) != null) {
+                specializations.put(rs.getLong(1), rs.getString(2));
+            }
+        });
+        return specializations;
+    }
+
+    private static String[] specializationNames(Map<Long, String> specializationByDoctor) {
+        return specializationByDoctor.values().stream().distinct().sorted().toArray(String[]::new);
+    }
+
+    private static short minuteOf(LocalTime time) {
+        return (short) (time == null ? 0 : time.getHour() * 60 + time.getMinute());
+    }
+
+    // Months since year 0, so consecutive months are consecutive numbers
+    private static int monthIndex(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    // One committed change, captured before the transaction ends; status null means the appointment was deleted
+    private record Row(Long id, Long doctorId, Long patientId, LocalDate date, LocalTime time, AppointmentStatus status) {
+        static Row of(Appointment appointment, LocalDate date, LocalTime time, AppointmentStatus status) {
+            return new Row(appointment.getId(), appointment.getDoctor().getId(), appointment.getPatient().getId(), date, time, status);
+        }
+
+        boolean isRemoval() {
+            return doctorId == null && status == null;
+        }
+
+        void applyTo(Columns columns) {
+            if (isRemoval()) {
+                columns.remove(id);
+            } else {
+                columns.put(id, doctorId, patientId, (int) date.toEpochDay(), minuteOf(time), (byte) status.ordinal());
+            }
+        }
+    }
+
+    private static final class Columns {
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private long[] doctorIds = new long[INITIAL_CAPACITY];
+        private long[] patientIds = new long[INITIAL_CAPACITY];
+        private int[] doctorCodes = new int[INITIAL_CAPACITY];
+        private int[] epochDays = new int[INITIAL_CAPACITY];
+        private short[] minutes = new short[INITIAL_CAPACITY];
+        private byte[] statuses = new byte[INITIAL_CAPACITY];
+        private int size;
+        private long live;
+
+        private final Map<Long, Integer> rowById = new HashMap<>();
+        private final Map<Long, Integer> codeByDoctorId = new HashMap<>();
+        private final List<Long> doctorIdByCode = new ArrayList<>();
+
+        void put(long id, long doctorId, long patientId, int epochDay, short minute, byte status) {
+            Integer row = rowById.get(id);
+            if (row == null) {
+                if (size == ids.length) {
+                    grow();
+                }
+                row = size++;
+                rowById.put(id, row);
+                live++;
+            }
+            ids[row] = id;
+            doctorIds[row] = doctorId;
+            patientIds[row] = patientId;
+            doctorCodes[row] = codeByDoctorId.computeIfAbsent(doctorId, k -> {
+                doctorIdByCode.add(k);
+                return doctorIdByCode.size() - 1;
+            });
+            epochDays[row] = epochDay;
+            minutes[row] = minute;
+            statuses[row] = status;
+        }
+
+        void remove(long id) {
+            Integer row = rowById.remove(id);
+            if (row != null) {
+                statuses[row] = DELETED;
+                live--;
+            }
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            doctorIds = Arrays.copyOf(doctorIds, capacity);
+            patientIds = Arrays.copyOf(patientIds, capacity);
+            doctorCodes = Arrays.copyOf(doctorCodes, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            minutes = Arrays.copyOf(minutes, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.examly.springapp.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.model.Appointment;
+import com.examly.springapp.model.AppointmentStatus;
+import com.examly.springapp.repository.AppointmentRepository;
+
+/**
+ * Appointment counts bucketed by day, status and doctor, plus the rollups the admin
+ * dashboard reads (total, per day, per status, per month and status, per doctor and status).
+ * Built with one GROUP BY query on first read or on rebuild(), then moved by +1/-1 as
+ * AppointmentService and WaitlistService commit changes, so every read is a map lookup.
+ * Deltas and reloads are ordered by the CommitFence.
+ */
+@Component
+public class AppointmentCounters {
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentHourlyRollup hourlyRollup;
+
+    @Autowired
+    private CommitFence commitFence;
+
+    private volatile Buckets buckets;
+
+    // ------------------ READS ------------------
+    public long total() {
+        return loaded().total.sum();
+    }
+
+    public long forDay(LocalDate date) {
+        return sum(loaded().byDay.get(date));
+    }
+
+    public long forStatus(AppointmentStatus status) {
+        return sum(loaded().byStatus.get(status));
+    }
+
+    public long forMonth(YearMonth month, AppointmentStatus status) {
+        return sum(loaded().byMonthStatus.get(new MonthStatus(month, status)));
+    }
+
+    public long forDoctor(Long doctorId, AppointmentStatus status) {
+        return sum(loaded().byDoctorStatus.get(new DoctorStatus(doctorId, status)));
+    }
+
+    public long forCell(LocalDate date, AppointmentStatus status, Long doctorId) {
+        return sum(loaded().cells.get(new Cell(date, status, doctorId)));
+    }
+
+    // ------------------ UPDATES (registered to run after commit) ------------------
+    // Each change also moves the hourly rollup behind the trend charts
+    public void created(Appointment appointment) {
+        Slot slot = Slot.of(appointment);
+        AppointmentStatus status = appointment.getStatus();
+        commitFence.afterCommit(() -> apply(slot, status, 1));
+    }
+
+    public void removed(Appointment appointment) {
+        Slot slot = Slot.of(appointment);
+        AppointmentStatus status = appointment.getStatus();
+        commitFence.afterCommit(() -> apply(slot, status, -1));
+    }
+
+    public void statusChanged(Appointment appointment, AppointmentStatus from, AppointmentStatus to) {
+        if (from == to) {
+            return;
+        }
+        Slot slot = Slot.of(appointment);
+        commitFence.afterCommit(() -> {
+            apply(slot, from, -1);
+            apply(slot, to, 1);
+        });
+    }
+
+    public void moved(Appointment appointment, LocalDate toDate, LocalTime toTime) {
+        Slot from = Slot.of(appointment);
+        Slot to = new Slot(from.appointmentId(), from.patientId(), from.doctorId(), toDate, toTime);
+        if (from.equals(to)) {
+            return;
+        }
+        AppointmentStatus status = appointment.getStatus();
+        commitFence.afterCommit(() -> {
+            apply(from, status, -1);
+            apply(to, status, 1);
+        });
+    }
+
+    /**
+     * Throw everything away and recount from the appointment table. The hourly rollup is
+     * rebuilt in the same hold of the fence, so both describe the same set of commits.
+     */
+    public void rebuild() {
+        commitFence.reload(() -> {
+            load();
+            hourlyRollup.rebuild();
+        });
+    }
+
+    private void load() {
+        Buckets fresh = new Buckets();
+        for (Object[] row : appointmentRepository.countByDayStatusAndDoctor()) {
+            fresh.add((LocalDate) row[0], (AppointmentStatus) row[1], (Long) row[2], (Long) row[3]);
+        }
+        buckets = fresh;
+    }
+
+    // Runs inside the fence (after commit)
+    private void apply(Slot slot, AppointmentStatus status, long delta) {
+        Buckets current = buckets;
+        if (current != null) {
+            current.add(slot.date(), status, slot.doctorId(), delta);
+        }
+        // not built yet: the first read counts this change from the database
+        hourlyRollup.apply(slot.date(), slot.time(), slot.doctorId(), status, delta);
+    }
+
+    private Buckets loaded() {
+        Buckets current = buckets;
+        if (current == null) {
+            commitFence.reload(() -> {
+                if (buckets == null) {
+                    load();
+                }
+            });
+            current = buckets;
+        }
+        return current;
+    }
+
+    private static long sum(LongAdder adder) {
+        return adder == null ? 0 : adder.sum();
+    }
+
+    // Where an appointment sits, captured before the transaction ends
+    private record Slot(Long appointmentId, Long patientId, Long doctorId, LocalDate date, LocalTime time) {
+        static Slot of(Appointment appointment) {
+            return new Slot(appointment.getId(), appointment.getPatient().getId(), appointment.getDoctor().getId(),
+                    appointment.getAppointmentDate(), appointment.getAppointmentTime());
+        }
+    }
+
+    private record Cell(LocalDate date, AppointmentStatus status, Long doctorId) {}
+    private record MonthStatus(YearMonth month, AppointmentStatus status) {}
+    private record DoctorStatus(Long doctorId, AppointmentStatus status) {}
+
+    private static final class Buckets {
+        private final LongAdder total = new LongAdder();
+        private final Map<Cell, LongAdder> cells = new ConcurrentHashMap<>();
+        private final Map<LocalDate, LongAdder> byDay = new ConcurrentHashMap<>();
+        private final Map<AppointmentStatus, LongAdder> byStatus = new ConcurrentHashMap<>();
+        private final Map<MonthStatus, LongAdder> byMonthStatus = new ConcurrentHashMap<>();
+        private final Map<DoctorStatus, LongAdder> byDoctorStatus = new ConcurrentHashMap<>();
+
+        void add(LocalDate date, AppointmentStatus status, Long doctorId, long delta) {
+            total.add(delta);
+            cells.computeIfAbsent(new Cell(date, status, doctorId), k -> new LongAdder()).add(delta);
+            if (date != null) {
+                byDay.computeIfAbsent(date, k -> new LongAdder()).add(delta);
+                byMonthStatus.computeIfAbsent(new MonthStatus(YearMonth.from(date), status), k -> new LongAdder()).add(delta);
+            }
+            if (status != null) {
+                byStatus.computeIfAbsent(status, k -> new LongAdder()).add(delta);
+            }
+            byDoctorStatus.computeIfAbsent(new DoctorStatus(doctorId, status), k -> new LongAdder()).add(delta);
+        }
+    }
+}
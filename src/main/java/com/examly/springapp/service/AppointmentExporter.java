@@ -0,0 +1,227 @@
+package com.examly.springapp.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.model.AppointmentStatus;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+
+/**
+ * Streams appointments for billing exports straight from a forward-only JDBC cursor to the
+ * response, one flat row per appointment, so memory stays flat however many rows match.
+ * No entities are built: patient and doctor columns come from the same joined query.
+ */
+@Component
+public class AppointmentExporter {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    private static final String[] COLUMNS = {
+            "id", "appointmentDate", "appointmentTime", "status", "reason", "createdAt", "seriesId",
+            "patientId", "patientName", "patientEmail",
+            "doctorId", "doctorName", "doctorSpecialization", "consultationFee"
+    };
+
+    private static final String SELECT_SQL =
+            "SELECT a.id, a.appointment_date, a.appointment_time, a.status, a.reason, a.created_at, a.series_id, " +
+            "p.id, p.name, p.email, d.id, d.name, d.specialization, d.consultation_fee " +
+            "FROM appointment a JOIN patient p ON p.id = a.patient_id JOIN doctor d ON d.id = a.doctor_id";
+
+    // MySQL Connector/J only streams row by row with this fetch size on a forward-only, read-only statement;
+    // other drivers reject it and take a positive fetch size as the number of rows per round trip
+    private static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    private static final int FETCH_SIZE = 500;
+
+    // Push a chunk to the client every this many rows
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public AppointmentExporter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Write every appointment matching the filters to out, ordered by date, time and id.
+     * Any filter may be null. Returns the number of rows written.
+     */
+    public long export(Format format, LocalDate from, LocalDate to, AppointmentStatus status, OutputStream out) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>();
+        List<String> where = new ArrayList<>();
+        if (from != null) {
+            where.add("a.appointment_date >= ?");
+            params.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            where.add("a.appointment_date <= ?");
+            params.add(Date.valueOf(to));
+        }
+        if (status != null) {
+            where.add("a.status = ?");
+            params.add(status.name());
+        }
+        if (!where.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        sql.append(" ORDER BY a.appointment_date, a.appointment_time, a.id");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            RowWriter rows = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer, jsonFactory);
+            long[] written = {0};
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                boolean mysql = connection.getMetaData().getDriverName().toLowerCase().contains("mysql");
+                ps.setFetchSize(mysql ? MYSQL_STREAMING_FETCH_SIZE : FETCH_SIZE);
+                for (int i = 0; i < params.size(); i++) {
+                    ps.setObject(i + 1, params.get(i));
+                }
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    rows.write(rs);
+                    if (++written[0] % FLUSH_EVERY_ROWS == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    // Client went away: stop reading, the statement and cursor are closed on the way out
+                    throw new UncheckedIOException(e);
+                }
+            });
+            rows.finish();
+            writer.flush();
+            return written[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final JsonGenerator json;
+
+        NdjsonRowWriter(Writer writer, JsonFactory factory) throws IOException {
+            this.writer = writer;
+            this.json = factory.createGenerator(writer);
+            this.json.setPrettyPrinter(new MinimalPrettyPrinter(""));
+            this.json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            json.writeStartObject();
+            for (int c = 0; c < COLUMNS.length; c++) {
+                Object value = rs.getObject(c + 1);
+                json.writeFieldName(COLUMNS[c]);
+                if (value == null) {
+                    json.writeNull();
+                } else if (value instanceof Number number) {
+                    json.writeNumber(number.toString());
+                } else {
+                    json.writeString(value.toString());
+                }
+            }
+            json.writeEndObject();
+            json.flush();
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.close();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int c = 0; c < COLUMNS.length; c++) {
+                if (c > 0) {
+                    writer.write(',');
+                }
+                Object value = rs.getObject(c + 1);
+                if (value instanceof Number) {
+                    writer.write(value.toString());
+                } else if (value != null) {
+                    writer.write(escape(neutralize(value.toString())));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        // Text a spreadsheet would read as a formula (names, reasons) is prefixed with a quote so it stays text
+        private static String neutralize(String value) {
+            if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+                return "'" + value;
+            }
+            return value;
+        }
+
+        // RFC 4180 quoting
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
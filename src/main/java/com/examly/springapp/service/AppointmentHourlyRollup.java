@@ -0,0 +1,211 @@
+package com.examly.springapp.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.model.AppointmentStatus;
+import com.examly.springapp.repository.AppointmentRepository;
+import com.examly.springapp.repository.RevenueLedgerRepository;
+
+/**
+ * Appointment counts by status and revenue, per hour of the appointment time and per doctor.
+ * Hours are kept in a sorted map so a chart range is a sub-map walk over a few dozen cells.
+ * Built with one grouped query over appointments and one over the revenue ledger on first
+ * read, then moved by AppointmentCounters and RevenueLedgerService after each commit.
+ * Revenue comes from the ledger in both cases, so a rebuild keeps the fee each visit was
+ * charged at. Deltas and reloads are ordered by the CommitFence.
+ */
+@Component
+public class AppointmentHourlyRollup {
+
+    private static final AppointmentStatus[] STATUSES = AppointmentStatus.values();
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private RevenueLedgerRepository revenueLedgerRepository;
+
+    @Autowired
+    private CommitFence commitFence;
+
+    private volatile NavigableMap<LocalDateTime, Cell> hours;
+
+    public enum Granularity { HOUR, DAY, WEEK, MONTH }
+
+    /**
+     * One chart point: appointments by status and revenue from start (inclusive) for one step
+     */
+    public record Point(LocalDateTime start, long total, Map<AppointmentStatus, Long> byStatus, double revenue) {
+        public long count(AppointmentStatus... statuses) {
+            long sum = 0;
+            for (AppointmentStatus status : statuses) {
+                sum += byStatus.getOrDefault(status, 0L);
+            }
+            return sum;
+        }
+    }
+
+    // ------------------ READS ------------------
+    /**
+     * Points from 'from' (inclusive) to 'to' (exclusive), one per step, empty steps included.
+     * doctorId narrows the series to one doctor.
+     */
+    public List<Point> series(LocalDateTime from, LocalDateTime to, Granularity granularity, Long doctorId) {
+        NavigableMap<LocalDateTime, Cell> current = loaded();
+        List<Point> points = new ArrayList<>();
+        for (LocalDateTime start = floor(from, granularity); start.isBefore(to); start = next(start, granularity)) {
+            LocalDateTime end = next(start, granularity);
+            LocalDateTime rangeStart = start.isBefore(from) ? from : start;
+            LocalDateTime rangeEnd = end.isAfter(to) ? to : end;
+
+            long[] counts = new long[STATUSES.length];
+            double revenue = 0;
+            for (Cell cell : current.subMap(rangeStart, true, rangeEnd, false).values()) {
+                Cell source = doctorId == null ? cell : cell.byDoctor.get(doctorId);
+                if (source == null) {
+                    continue;
+                }
+                for (int s = 0; s < STATUSES.length; s++) {
+                    counts[s] += source.counts[s].sum();
+                }
+                revenue += source.revenue.sum();
+            }
+
+            Map<AppointmentStatus, Long> byStatus = new EnumMap<>(AppointmentStatus.class);
+            long total = 0;
+            for (int s = 0; s < STATUSES.length; s++) {
+                byStatus.put(STATUSES[s], counts[s]);
+                total += counts[s];
+            }
+            points.add(new Point(start, total, byStatus, revenue));
+        }
+        return points;
+    }
+
+    // ------------------ UPDATES (called after commit, inside the fence) ------------------
+    void apply(LocalDate date, LocalTime time, Long doctorId, AppointmentStatus status, long delta) {
+        if (date == null || status == null) {
+            return;
+        }
+        update(date, time, doctorId, cell -> cell.counts[status.ordinal()].add(delta));
+    }
+
+    void addRevenue(LocalDate date, LocalTime time, Long doctorId, double amount) {
+        if (date == null) {
+            return;
+        }
+        update(date, time, doctorId, cell -> cell.revenue.add(amount));
+    }
+
+    private void update(LocalDate date, LocalTime time, Long doctorId, Consumer<Cell> change) {
+        NavigableMap<LocalDateTime, Cell> current = hours;
+        if (current == null) {
+            return; // not built yet, the first read counts this change from the database
+        }
+        Cell hour = current.computeIfAbsent(hourOf(date, time), k -> new Cell());
+        change.accept(hour);
+        change.accept(hour.byDoctor.computeIfAbsent(doctorId, k -> new Cell()));
+    }
+
+    /**
+     * Throw everything away and re-aggregate from the appointment table and the revenue ledger
+     */
+    public void rebuild() {
+        commitFence.reload(this::load);
+    }
+
+    private void load() {
+        NavigableMap<LocalDateTime, Cell> fresh = new ConcurrentSkipListMap<>();
+        for (Object[] row : appointmentRepository.countByHourDoctorAndStatus()) {
+            LocalDate date = (LocalDate) row[0];
+            AppointmentStatus status = (AppointmentStatus) row[3];
+            if (date == null || status == null) {
+                continue;
+            }
+            long count = ((Number) row[4]).longValue();
+            Cell hour = fresh.computeIfAbsent(date.atTime(hourOf(row[1]), 0), k -> new Cell());
+            hour.counts[status.ordinal()].add(count);
+            hour.byDoctor.computeIfAbsent((Long) row[2], k -> new Cell()).counts[status.ordinal()].add(count);
+        }
+        for (Object[] row : revenueLedgerRepository.sumByHourAndDoctor()) {
+            LocalDate date = (LocalDate) row[0];
+            if (date == null) {
+                continue;
+            }
+            double amount = ((Number) row[3]).doubleValue();
+            Cell hour = fresh.computeIfAbsent(date.atTime(hourOf(row[1]), 0), k -> new Cell());
+            hour.revenue.add(amount);
+            hour.byDoctor.computeIfAbsent((Long) row[2], k -> new Cell()).revenue.add(amount);
+        }
+        hours = fresh;
+    }
+
+    private NavigableMap<LocalDateTime, Cell> loaded() {
+        NavigableMap<LocalDateTime, Cell> current = hours;
+        if (current == null) {
+            commitFence.reload(() -> {
+                if (hours == null) {
+                    load();
+                }
+            });
+            current = hours;
+        }
+        return current;
+    }
+
+    private static int hourOf(Object extractedHour) {
+        return extractedHour == null ? 0 : ((Number) extractedHour).intValue();
+    }
+
+    private static LocalDateTime hourOf(LocalDate date, LocalTime time) {
+        return date.atTime(time == null ? 0 : time.getHour(), 0);
+    }
+
+    private static LocalDateTime floor(LocalDateTime time, Granularity granularity) {
+        return switch (granularity) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.toLocalDate().atStartOfDay();
+            case WEEK -> time.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+            case MONTH -> time.toLocalDate().withDayOfMonth(1).atStartOfDay();
+        };
+    }
+
+    private static LocalDateTime next(LocalDateTime start, Granularity granularity) {
+        return switch (granularity) {
+            case HOUR -> start.plusHours(1);
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+
+    private static final class Cell {
+        private final LongAdder[] counts = new LongAdder[STATUSES.length];
+        private final DoubleAdder revenue = new DoubleAdder();
+        private final Map<Long, Cell> byDoctor = new ConcurrentHashMap<>();
+
+        Cell() {
+            for (int s = 0; s < counts.length; s++) {
+                counts[s] = new LongAdder();
+            }
+        }
+    }
+}
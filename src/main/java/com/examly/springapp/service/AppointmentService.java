@@ -3,17 +3,37 @@ package com.examly.springapp.service;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.examly.springapp.dto.AppointmentDto;
+import com.examly.springapp.dto.AppointmentEvent;
+import com.examly.springapp.dto.BulkBookingItem;
+import com.examly.springapp.dto.BulkBookingResult;
+import com.examly.springapp.dto.KeysetPage;
+import com.examly.springapp.dto.SeriesBookingRequest;
+import com.examly.springapp.dto.SeriesBookingResult;
 import com.examly.springapp.model.Appointment;
 import com.examly.springapp.model.AppointmentStatus;
 import com.examly.springapp.model.Doctor;
 import com.examly.springapp.model.Patient;
+import com.examly.springapp.model.SlotMask;
 import com.examly.springapp.repository.AppointmentRepository;
 import com.examly.springapp.repository.DoctorRepository;
 import com.examly.springapp.repository.PatientRepository;
@@ -34,19 +54,42 @@ public class AppointmentService {
     @Autowired
     private AvailabilityService availabilityService; // NEW: service to check doctor availability
 
-    // ------------------ BOOK APPOINTMENT ------------------
-    public Appointment bookAppointment(Long patientId, Long doctorId, LocalDate date, LocalTime time, String reason) {
-        if (patientId == null || doctorId == null || date == null || time == null || reason == null || reason.trim().isEmpty()) {
-            throw new IllegalArgumentException("All appointment details are required");
-        }
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
 
-        if (date.isBefore(LocalDate.now())) {
-            throw new IllegalArgumentException("Cannot book appointment for past dates");
-        }
+    @Autowired
+    private SlotLockTable slotLockTable;
 
-        if (date.equals(LocalDate.now()) && time.isBefore(LocalTime.now())) {
-            throw new IllegalArgumentException("Cannot book appointment for past time today");
-        }
+    @Autowired
+    private SlotHoldRegistry slotHoldRegistry;
+
+    @Autowired
+    private FreeSlotCalendar freeSlotCalendar;
+
+    @Autowired
+    private AppointmentBatchInserter appointmentBatchInserter;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private AppointmentCounters appointmentCounters;
+
+    @Autowired
+    private AppointmentColumnStore appointmentColumnStore;
+
+    @Autowired
+    private DashboardEventHub dashboardEvents;
+
+    @Autowired
+    private RevenueLedgerService revenueLedgerService;
+
+    @Autowired
+    private KeysetPaging keysetPaging;
+
+    // ------------------ BOOK APPOINTMENT ------------------
+    public Appointment bookAppointment(Long patientId, Long doctorId, LocalDate date, LocalTime time, String reason) {
+        checkBookingDetails(patientId, doctorId, date, time, reason);
 
         Patient patient = patientRepository.findById(patientId)
                 .orElseThrow(() -> new IllegalArgumentException("Patient not found with ID: " + patientId));
@@ -55,14 +98,9 @@ public class AppointmentService {
                 .orElseThrow(() -> new IllegalArgumentException("Doctor not found with ID: " + doctorId));
 
         // ------------------ AVAILABILITY CHECK ------------------
-        // ------------------ AVAILABILITY CHECK ------------------
-
-
-
-        // Check if doctor already has an appointment at this time
-        boolean exists = appointmentRepository.existsByDoctorAndAppointmentDateAndAppointmentTime(doctor, date, time);
-        if (exists) {
-            throw new IllegalStateException("This time slot has already been booked for doctor " + doctor.getName());
+        String unavailable = checkWeeklyAvailability(availabilityService.getBookableSlotMasks(doctor), date, time);
+        if (unavailable != null) {
+            throw new IllegalArgumentException(unavailable);
         }
 
         // Create appointment
@@ -76,7 +114,519 @@ public class AppointmentService {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        return appointmentRepository.save(appointment);
+        // Only bookings for the same doctor and date wait on each other
+        Lock lock = slotLockTable.lockFor(doctorId, date);
+        lock.lock();
+        try {
+            // A slot another patient is holding cannot be booked until the hold is released or expires
+            if (slotHoldRegistry.isHeldByOther(doctorId, date, time, patientId)) {
+                throw new IllegalStateException("This time slot is currently held by another patient");
+            }
+
+            // Check if doctor already has an appointment at this time (in-memory index, loaded from the DB on first use).
+            // The reservation is dropped again if this transaction does not commit.
+            if (!slotOccupancyIndex.occupy(doctorId, date, time)) {
+                throw new IllegalStateException("This time slot has already been booked for doctor " + doctor.getName());
+            }
+
+            // The patient's own hold has served its purpose once the booking is committed
+            TransactionHooks.afterCommit(() -> {
+                slotHoldRegistry.consume(doctorId, date, time, patientId);
+                freeSlotCalendar.markBooked(doctorId, date, time);
+            });
+
+            try {
+                Appointment saved = appointmentRepository.saveAndFlush(appointment);
+                appointmentCounters.created(saved);
+                appointmentColumnStore.created(saved);
+                dashboardEvents.booked(saved);
+                return saved;
+            } catch (DataIntegrityViolationException e) {
+                // Another node booked the slot first: uk_appointment_active_slot rejected our row
+                throw new IllegalStateException("This time slot has already been booked for doctor " + doctor.getName());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ------------------ BULK BOOKING ------------------
+    public static final int MAX_BULK_ITEMS = 500;
+
+    /**
+     * Book many appointments at once. Every item is validated in one pass, patients and doctors
+     * are fetched with one query each, conflicts are checked against one range query, and the
+     * accepted appointments are inserted with a single JDBC batch. Returns one result per item.
+     */
+    public List<BulkBookingResult> bookAppointments(List<BulkBookingItem> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one appointment is required");
+        }
+        if (items.size() > MAX_BULK_ITEMS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_ITEMS + " appointments can be booked at once");
+        }
+
+        BulkBookingResult[] results = new BulkBookingResult[items.size()];
+        Set<Long> patientIds = new HashSet<>();
+        Set<Long> doctorIds = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            BulkBookingItem item = items.get(i);
+            try {
+                checkBookingDetails(item.patientId(), item.doctorId(), item.appointmentDate(), item.appointmentTime(), item.reason());
+                patientIds.add(item.patientId());
+                doctorIds.add(item.doctorId());
+            } catch (IllegalArgumentException e) {
+                results[i] = BulkBookingResult.invalid(i, e.getMessage());
+            }
+        }
+
+        Map<Long, Patient> patients = patientRepository.findAllById(patientIds).stream()
+                .collect(Collectors.toMap(Patient::getId, p -> p));
+        Map<Long, Doctor> doctors = doctorRepository.findAllById(doctorIds).stream()
+                .collect(Collectors.toMap(Doctor::getId, d -> d));
+
+        Map<Long, SlotMask[]> schedules = new HashMap<>();
+        List<Integer> candidateIndexes = new ArrayList<>();
+        List<Appointment> candidates = new ArrayList<>();
+        LocalDate from = null;
+        LocalDate to = null;
+        for (int i = 0; i < items.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            BulkBookingItem item = items.get(i);
+            Patient patient = patients.get(item.patientId());
+            Doctor doctor = doctors.get(item.doctorId());
+            if (patient == null) {
+                results[i] = BulkBookingResult.invalid(i, "Patient not found with ID: " + item.patientId());
+                continue;
+            }
+            if (doctor == null) {
+                results[i] = BulkBookingResult.invalid(i, "Doctor not found with ID: " + item.doctorId());
+                continue;
+            }
+            if (!schedules.containsKey(doctor.getId())) {
+                schedules.put(doctor.getId(), availabilityService.getBookableSlotMasks(doctor)); // null: no schedule
+            }
+            String unavailable = checkWeeklyAvailability(schedules.get(doctor.getId()), item.appointmentDate(), item.appointmentTime());
+            if (unavailable != null) {
+                results[i] = BulkBookingResult.invalid(i, unavailable);
+                continue;
+            }
+            candidateIndexes.add(i);
+            candidates.add(Appointment.builder()
+                    .patient(patient)
+                    .doctor(doctor)
+                    .appointmentDate(item.appointmentDate())
+                    .appointmentTime(item.appointmentTime())
+                    .reason(item.reason().trim())
+                    .status(AppointmentStatus.SCHEDULED)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            from = (from == null || item.appointmentDate().isBefore(from)) ? item.appointmentDate() : from;
+            to = (to == null || item.appointmentDate().isAfter(to)) ? item.appointmentDate() : to;
+        }
+        if (candidates.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        // Every doctor-day in the batch is locked, in stripe order, for the conflict check and the insert
+        List<Lock> locks = slotLockTable.locksFor(candidates);
+        locks.forEach(Lock::lock);
+        try {
+            Set<SlotKey> taken = new HashSet<>();
+            for (Object[] row : appointmentRepository.findOccupiedSlotsForDoctors(doctors.keySet(), from, to)) {
+                taken.add(new SlotKey((Long) row[0], (LocalDate) row[1], (LocalTime) row[2]));
+            }
+
+            List<Appointment> accepted = new ArrayList<>();
+            List<Integer> acceptedIndexes = new ArrayList<>();
+            for (int c = 0; c < candidates.size(); c++) {
+                Appointment appointment = candidates.get(c);
+                int index = candidateIndexes.get(c);
+                Long doctorId = appointment.getDoctor().getId();
+                Long patientId = appointment.getPatient().getId();
+                LocalDate date = appointment.getAppointmentDate();
+                LocalTime time = appointment.getAppointmentTime();
+
+                if (slotHoldRegistry.isHeldByOther(doctorId, date, time, patientId)) {
+                    results[index] = BulkBookingResult.conflict(index, "This time slot is currently held by another patient");
+                } else if (!taken.add(new SlotKey(doctorId, date, time))
+                        || !slotOccupancyIndex.occupyIfLoaded(doctorId, date, time)) {
+                    // Booked already, booked by a single booking that has not committed yet, or repeated in this batch
+                    results[index] = BulkBookingResult.conflict(index, "This time slot has already been booked for doctor " + appointment.getDoctor().getName());
+                } else {
+                    accepted.add(appointment);
+                    acceptedIndexes.add(index);
+                    TransactionHooks.afterCommit(() -> {
+                        slotHoldRegistry.consume(doctorId, date, time, patientId);
+                        freeSlotCalendar.markBooked(doctorId, date, time);
+                    });
+                }
+            }
+
+            try {
+                appointmentBatchInserter.insert(accepted);
+            } catch (DataIntegrityViolationException e) {
+                // Another node took one of the slots after the range query: uk_appointment_active_slot rejected the batch
+                throw new IllegalStateException("One or more time slots were booked concurrently, please retry the batch");
+            }
+            accepted.forEach(appointmentCounters::created);
+            accepted.forEach(appointmentColumnStore::created);
+            accepted.forEach(dashboardEvents::booked);
+            for (int a = 0; a < accepted.size(); a++) {
+                int index = acceptedIndexes.get(a);
+                results[index] = BulkBookingResult.booked(index, accepted.get(a).getId());
+            }
+        } finally {
+            unlockAll(locks);
+        }
+        return Arrays.asList(results);
+    }
+
+    // Null if the weekly schedule offers the slot (or the doctor has none), otherwise the reason it does not
+    private static String checkWeeklyAvailability(SlotMask[] weekly, LocalDate date, LocalTime time) {
+        int minute = time.getHour() * 60 + time.getMinute();
+        if (weekly == null || weekly[date.getDayOfWeek().ordinal()].contains(minute)) {
+            return null;
+        }
+        return "Doctor is not available on " + date.getDayOfWeek() + " at " + SlotMask.format(minute);
+    }
+
+    // ------------------ RECURRING SERIES ------------------
+    public static final int MAX_SERIES_OCCURRENCES = 52;
+
+    /**
+     * Book every occurrence of a recurring appointment. The occurrences are checked against the
+     * doctor's weekly availability and one range query of existing appointments, then inserted
+     * with a single JDBC batch. Unless partial booking is asked for, one conflict books nothing.
+     */
+    public SeriesBookingResult bookSeries(SeriesBookingRequest request) {
+        if (request.frequency() == null || request.occurrences() == null) {
+            throw new IllegalArgumentException("Frequency and number of occurrences are required");
+        }
+        if (request.occurrences() < 1 || request.occurrences() > MAX_SERIES_OCCURRENCES) {
+            throw new IllegalArgumentException("A series must have between 1 and " + MAX_SERIES_OCCURRENCES + " occurrences");
+        }
+        checkBookingDetails(request.patientId(), request.doctorId(), request.startDate(), request.appointmentTime(), request.reason());
+        boolean partial = Boolean.TRUE.equals(request.partial());
+
+        Patient patient = patientRepository.findById(request.patientId())
+                .orElseThrow(() -> new IllegalArgumentException("Patient not found with ID: " + request.patientId()));
+
+        Doctor doctor = doctorRepository.findById(request.doctorId())
+                .orElseThrow(() -> new IllegalArgumentException("Doctor not found with ID: " + request.doctorId()));
+
+        Long doctorId = doctor.getId();
+        Long patientId = patient.getId();
+        LocalTime time = request.appointmentTime();
+        List<LocalDate> dates = new ArrayList<>();
+        for (int n = 0; n < request.occurrences(); n++) {
+            dates.add(request.frequency().occurrence(request.startDate(), n));
+        }
+
+        SlotMask[] weekly = availabilityService.getBookableSlotMasks(doctor);
+        String seriesId = UUID.randomUUID().toString();
+
+        List<Lock> locks = slotLockTable.locksFor(doctorId, dates);
+        locks.forEach(Lock::lock);
+        try {
+            Set<SlotKey> taken = occupiedSlots(doctorId, dates.get(0), dates.get(dates.size() - 1));
+
+            SeriesBookingResult.Occurrence[] outcomes = new SeriesBookingResult.Occurrence[dates.size()];
+            boolean conflicts = false;
+            for (int n = 0; n < dates.size(); n++) {
+                LocalDate date = dates.get(n);
+                String unavailable = checkWeeklyAvailability(weekly, date, time);
+                if (unavailable != null) {
+                    outcomes[n] = occurrence(date, time, SeriesBookingResult.Outcome.UNAVAILABLE, null, unavailable);
+                } else if (slotHoldRegistry.isHeldByOther(doctorId, date, time, patientId)) {
+                    outcomes[n] = occurrence(date, time, SeriesBookingResult.Outcome.CONFLICT, null, "This time slot is currently held by another patient");
+                } else if (taken.contains(new SlotKey(doctorId, date, time))) {
+                    outcomes[n] = occurrence(date, time, SeriesBookingResult.Outcome.CONFLICT, null, "This time slot has already been booked");
+                }
+                conflicts |= outcomes[n] != null;
+            }
+
+            // Reserve the free occurrences in the index; this also catches bookings that have not committed yet
+            List<LocalDate> reserved = new ArrayList<>();
+            if (partial || !conflicts) {
+                for (int n = 0; n < dates.size(); n++) {
+                    if (outcomes[n] != null) {
+                        continue;
+                    }
+                    if (slotOccupancyIndex.occupyIfLoaded(doctorId, dates.get(n), time)) {
+                        reserved.add(dates.get(n));
+                    } else {
+                        outcomes[n] = occurrence(dates.get(n), time, SeriesBookingResult.Outcome.CONFLICT, null, "This time slot has already been booked");
+                        conflicts = true;
+                    }
+                }
+            }
+            if (conflicts && !partial) {
+                reserved.forEach(date -> slotOccupancyIndex.release(doctorId, date, time));
+                for (int n = 0; n < dates.size(); n++) {
+                    if (outcomes[n] == null) {
+                        outcomes[n] = occurrence(dates.get(n), time, SeriesBookingResult.Outcome.SKIPPED, null, null);
+                    }
+                }
+                return new SeriesBookingResult(null, 0, Arrays.asList(outcomes));
+            }
+
+            List<Appointment> accepted = new ArrayList<>();
+            for (LocalDate date : reserved) {
+                accepted.add(Appointment.builder()
+                        .patient(patient)
+                        .doctor(doctor)
+                        .appointmentDate(date)
+                        .appointmentTime(time)
+                        .reason(request.reason().trim())
+                        .status(AppointmentStatus.SCHEDULED)
+                        .createdAt(LocalDateTime.now())
+                        .seriesId(seriesId)
+                        .build());
+                TransactionHooks.afterCommit(() -> {
+                    slotHoldRegistry.consume(doctorId, date, time, patientId);
+                    freeSlotCalendar.markBooked(doctorId, date, time);
+                });
+            }
+
+            try {
+                appointmentBatchInserter.insert(accepted);
+            } catch (DataIntegrityViolationException e) {
+                throw new IllegalStateException("One or more occurrences were booked concurrently, please retry the series");
+            }
+            accepted.forEach(appointmentCounters::created);
+            accepted.forEach(appointmentColumnStore::created);
+            accepted.forEach(dashboardEvents::booked);
+
+            Map<LocalDate, Long> ids = accepted.stream().collect(Collectors.toMap(Appointment::getAppointmentDate, Appointment::getId));
+            for (int n = 0; n < dates.size(); n++) {
+                if (outcomes[n] == null) {
+                    outcomes[n] = occurrence(dates.get(n), time, SeriesBookingResult.Outcome.BOOKED, ids.get(dates.get(n)), null);
+                }
+            }
+            return new SeriesBookingResult(accepted.isEmpty() ? null : seriesId, accepted.size(), Arrays.asList(outcomes));
+        } finally {
+            unlockAll(locks);
+        }
+    }
+
+    /**
+     * Cancel every remaining occurrence of a series with one bulk update
+     */
+    public SeriesBookingResult cancelSeries(String seriesId, String userEmail, boolean isAdmin) {
+        List<Appointment> open = openSeriesOccurrences(seriesId, userEmail, isAdmin);
+
+        appointmentRepository.cancelAll(open.stream().map(Appointment::getId).toList());
+
+        List<SeriesBookingResult.Occurrence> outcomes = new ArrayList<>();
+        for (Appointment appointment : open) {
+            AppointmentStatus previous = appointment.getStatus();
+            appointmentCounters.statusChanged(appointment, previous, AppointmentStatus.CANCELLED);
+            appointmentColumnStore.statusChanged(appointment, AppointmentStatus.CANCELLED);
+            // Detached by the bulk update, so this only brings the object in line with its row
+            appointment.setStatus(AppointmentStatus.CANCELLED);
+            dashboardEvents.statusChanged(AppointmentEvent.Type.CANCELLED, appointment, previous);
+            releaseOrPromote(appointment.getDoctor(), appointment.getAppointmentDate(), appointment.getAppointmentTime());
+            outcomes.add(occurrence(appointment.getAppointmentDate(), appointment.getAppointmentTime(),
+                    SeriesBookingResult.Outcome.CANCELLED, appointment.getId(), null));
+        }
+        return new SeriesBookingResult(seriesId, outcomes.size(), outcomes);
+    }
+
+    /**
+     * Move every remaining occurrence of a series to a new time and/or by a number of days.
+     * All new slots are checked first; if any of them conflicts nothing is moved.
+     */
+    public SeriesBookingResult moveSeries(String seriesId, LocalTime newTime, int shiftDays, String userEmail, boolean isAdmin) {
+        List<Appointment> open = openSeriesOccurrences(seriesId, userEmail, isAdmin);
+
+        Doctor doctor = open.get(0).getDoctor();
+        Long doctorId = doctor.getId();
+        Long patientId = open.get(0).getPatient().getId();
+        LocalTime time = newTime != null ? newTime : open.get(0).getAppointmentTime();
+
+        Set<SlotKey> oldSlots = new HashSet<>();
+        Set<LocalDate> lockedDates = new HashSet<>();
+        List<LocalDate> newDates = new ArrayList<>();
+        for (Appointment appointment : open) {
+            LocalDate newDate = appointment.getAppointmentDate().plusDays(shiftDays);
+            checkBookingDetails(patientId, doctorId, newDate, time, appointment.getReason() == null ? "-" : appointment.getReason());
+            oldSlots.add(new SlotKey(doctorId, appointment.getAppointmentDate(), appointment.getAppointmentTime()));
+            lockedDates.add(appointment.getAppointmentDate());
+            lockedDates.add(newDate);
+            newDates.add(newDate);
+        }
+
+        SlotMask[] weekly = availabilityService.getBookableSlotMasks(doctor);
+
+        List<Lock> locks = slotLockTable.locksFor(doctorId, lockedDates);
+        locks.forEach(Lock::lock);
+        try {
+            Set<SlotKey> taken = occupiedSlots(doctorId, newDates.get(0), newDates.get(newDates.size() - 1));
+            taken.removeAll(oldSlots); // the series may move onto its own old slots
+
+            List<SeriesBookingResult.Occurrence> outcomes = new ArrayList<>();
+            boolean conflicts = false;
+            for (int n = 0; n < open.size(); n++) {
+                LocalDate date = newDates.get(n);
+                SeriesBookingResult.Occurrence outcome;
+                String unavailable = checkWeeklyAvailability(weekly, date, time);
+                if (unavailable != null) {
+                    outcome = occurrence(date, time, SeriesBookingResult.Outcome.UNAVAILABLE, open.get(n).getId(), unavailable);
+                } else if (slotHoldRegistry.isHeldByOther(doctorId, date, time, patientId)
+                        || taken.contains(new SlotKey(doctorId, date, time))) {
+                    outcome = occurrence(date, time, SeriesBookingResult.Outcome.CONFLICT, open.get(n).getId(), "This time slot is not free");
+                } else {
+                    outcome = occurrence(date, time, SeriesBookingResult.Outcome.MOVED, open.get(n).getId(), null);
+                }
+                conflicts |= outcome.outcome() != SeriesBookingResult.Outcome.MOVED;
+                outcomes.add(outcome);
+            }
+
+            List<SlotKey> reserved = new ArrayList<>();
+            if (!conflicts) {
+                for (int n = 0; n < open.size() && !conflicts; n++) {
+                    SlotKey slot = new SlotKey(doctorId, newDates.get(n), time);
+                    if (oldSlots.contains(slot)) {
+                        continue;
+                    }
+                    if (slotOccupancyIndex.occupyIfLoaded(doctorId, slot.date(), time)) {
+                        reserved.add(slot);
+                    } else {
+                        outcomes.set(n, occurrence(slot.date(), time, SeriesBookingResult.Outcome.CONFLICT, open.get(n).getId(), "This time slot is not free"));
+                        conflicts = true;
+                    }
+                }
+            }
+            if (conflicts) {
+                reserved.forEach(slot -> slotOccupancyIndex.release(doctorId, slot.date(), time));
+                List<SeriesBookingResult.Occurrence> report = new ArrayList<>();
+                for (SeriesBookingResult.Occurrence outcome : outcomes) {
+                    report.add(outcome.outcome() == SeriesBookingResult.Outcome.MOVED
+                            ? occurrence(outcome.date(), time, SeriesBookingResult.Outcome.SKIPPED, outcome.appointmentId(), null)
+                            : outcome);
+                }
+                return new SeriesBookingResult(seriesId, 0, report);
+            }
+
+            List<Long> ids = open.stream().map(Appointment::getId).toList();
+            try {
+                appointmentRepository.releaseSlots(ids);
+                // Row by row through the entities, so each row's slot_active is set again from its
+                // status by Appointment's @PreUpdate, as on every other booking path
+                List<Appointment> moving = appointmentRepository.findAllById(ids);
+                for (Appointment appointment : moving) {
+                    appointment.setAppointmentDate(appointment.getAppointmentDate().plusDays(shiftDays));
+                    appointment.setAppointmentTime(time);
+                }
+                appointmentRepository.saveAllAndFlush(moving);
+            } catch (DataIntegrityViolationException e) {
+                throw new IllegalStateException("One or more new slots were booked concurrently, please retry");
+            }
+
+            Set<SlotKey> newSlots = new HashSet<>();
+            for (int n = 0; n < open.size(); n++) {
+                newSlots.add(new SlotKey(doctorId, newDates.get(n), time));
+                appointmentCounters.moved(open.get(n), newDates.get(n), time);
+                appointmentColumnStore.moved(open.get(n), newDates.get(n), time);
+                dashboardEvents.moved(open.get(n), newDates.get(n), time);
+            }
+            for (SlotKey slot : oldSlots) {
+                if (!newSlots.contains(slot)) {
+                    releaseOrPromote(doctor, slot.date(), slot.time());
+                }
+            }
+            for (SlotKey slot : newSlots) {
+                if (!oldSlots.contains(slot)) {
+                    TransactionHooks.afterCommit(() -> {
+                        slotOccupancyIndex.markBooked(doctorId, slot.date(), time);
+                        freeSlotCalendar.markBooked(doctorId, slot.date(), time);
+                    });
+                }
+            }
+            return new SeriesBookingResult(seriesId, outcomes.size(), outcomes);
+        } finally {
+            unlockAll(locks);
+        }
+    }
+
+    private List<Appointment> openSeriesOccurrences(String seriesId, String userEmail, boolean isAdmin) {
+        if (seriesId == null || seriesId.isBlank()) {
+            throw new IllegalArgumentException("Series ID is required");
+        }
+        List<Appointment> open = appointmentRepository.findOpenSeriesOccurrences(seriesId, LocalDate.now());
+        if (open.isEmpty()) {
+            throw new IllegalArgumentException("No open appointments found for series: " + seriesId);
+        }
+        Appointment first = open.get(0);
+        boolean allowed = isAdmin || first.getDoctor().getEmail().equals(userEmail) || first.getPatient().getEmail().equals(userEmail);
+        if (!allowed) {
+            throw new IllegalStateException("You don't have permission to change this series");
+        }
+        return open;
+    }
+
+    private Set<SlotKey> occupiedSlots(Long doctorId, LocalDate from, LocalDate to) {
+        Set<SlotKey> taken = new HashSet<>();
+        for (Object[] row : appointmentRepository.findOccupiedSlotsForDoctor(doctorId, from, to)) {
+            taken.add(new SlotKey(doctorId, (LocalDate) row[0], (LocalTime) row[1]));
+        }
+        return taken;
+    }
+
+    private static SeriesBookingResult.Occurrence occurrence(LocalDate date, LocalTime time, SeriesBookingResult.Outcome outcome,
+                                                             Long appointmentId, String error) {
+        return new SeriesBookingResult.Occurrence(date, time, outcome, appointmentId, error);
+    }
+
+    private static void unlockAll(List<Lock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    // ------------------ HOLD SLOT ------------------
+    public SlotHoldRegistry.SlotHold holdSlot(Long patientId, Long doctorId, LocalDate date, LocalTime time) {
+        if (patientId == null || doctorId == null || date == null || time == null) {
+            throw new IllegalArgumentException("Patient, doctor, date and time are required to hold a slot");
+        }
+
+        if (date.isBefore(LocalDate.now()) || (date.equals(LocalDate.now()) && time.isBefore(LocalTime.now()))) {
+            throw new IllegalArgumentException("Cannot hold a slot in the past");
+        }
+
+        if (!patientRepository.existsById(patientId)) {
+            throw new IllegalArgumentException("Patient not found with ID: " + patientId);
+        }
+
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new IllegalArgumentException("Doctor not found with ID: " + doctorId);
+        }
+
+        // Same stripe as bookAppointment, so a hold never lands on a slot that is being booked
+        Lock lock = slotLockTable.lockFor(doctorId, date);
+        lock.lock();
+        try {
+            if (slotOccupancyIndex.isOccupied(doctorId, date, time)) {
+                throw new IllegalStateException("This time slot has already been booked");
+            }
+            return slotHoldRegistry.hold(doctorId, date, time, patientId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean releaseHold(String holdId, Long patientId, boolean isAdmin) {
+        SlotHoldRegistry.SlotHold hold = slotHoldRegistry.getHold(holdId);
+        if (hold == null) {
+            return false;
+        }
+        if (!isAdmin && !hold.patientId().equals(patientId)) {
+            throw new IllegalStateException("You can only release your own holds");
+        }
+        return slotHoldRegistry.release(holdId);
     }
 
     // ------------------ GET APPOINTMENTS BY DOCTOR ------------------
@@ -104,8 +654,11 @@ public class AppointmentService {
             return "Only scheduled/pending appointments can be approved";
         }
 
+        AppointmentStatus previous = appointment.getStatus();
         appointment.setStatus(AppointmentStatus.CONFIRMED);
         appointmentRepository.save(appointment);
+        afterStatusChange(appointment, previous);
+        dashboardEvents.statusChanged(AppointmentEvent.Type.APPROVED, appointment, previous);
         return "Appointment approved successfully";
     }
 
@@ -118,9 +671,12 @@ public class AppointmentService {
 
         if (appointment.getStatus() == AppointmentStatus.COMPLETED) return "Cannot reject a completed appointment";
 
+        AppointmentStatus previous = appointment.getStatus();
         appointment.setStatus(AppointmentStatus.CANCELLED);
         appointment.setReason(rejectionReason); // optional: save rejection reason
         appointmentRepository.save(appointment);
+        afterStatusChange(appointment, previous);
+        dashboardEvents.statusChanged(AppointmentEvent.Type.REJECTED, appointment, previous);
         return "Appointment rejected successfully";
     }
 
@@ -135,8 +691,11 @@ public class AppointmentService {
             return "Only pending/scheduled appointments can be confirmed";
         }
 
+        AppointmentStatus previous = appointment.getStatus();
         appointment.setStatus(AppointmentStatus.CONFIRMED);
         appointmentRepository.save(appointment);
+        afterStatusChange(appointment, previous);
+        dashboardEvents.statusChanged(AppointmentEvent.Type.APPROVED, appointment, previous);
         return "Appointment confirmed successfully";
     }
 
@@ -149,8 +708,11 @@ public class AppointmentService {
 
         if (appointment.getStatus() != AppointmentStatus.CONFIRMED) return "Only confirmed appointments can be completed";
 
+        AppointmentStatus previous = appointment.getStatus();
         appointment.setStatus(AppointmentStatus.COMPLETED);
         appointmentRepository.save(appointment);
+        afterStatusChange(appointment, previous);
+        dashboardEvents.statusChanged(AppointmentEvent.Type.COMPLETED, appointment, previous);
         return "Appointment completed successfully";
     }
 
@@ -164,8 +726,11 @@ public class AppointmentService {
 
         if (appointment.getStatus() == AppointmentStatus.COMPLETED) return "Cannot cancel a completed appointment";
 
+        AppointmentStatus previous = appointment.getStatus();
         appointment.setStatus(AppointmentStatus.CANCELLED);
         appointmentRepository.save(appointment);
+        afterStatusChange(appointment, previous);
+        dashboardEvents.statusChanged(AppointmentEvent.Type.CANCELLED, appointment, previous);
         return "Appointment cancelled successfully";
     }
 
@@ -181,6 +746,47 @@ public class AppointmentService {
         return appointmentRepository.findAllWithDetails();
     }
 
+    /**
+     * The most recently created appointments, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<Appointment> getRecentlyCreated(int count) {
+        return appointmentRepository.findMostRecentlyCreated(PageRequest.of(0, count));
+    }
+
+    /**
+     * One page of all appointments in (date, time, id) order, starting after the cursor (first page when null)
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<AppointmentDto> getAppointmentsPage(String cursor, Integer limit) {
+        int size = keysetPaging.size(limit);
+        List<AppointmentDto> fetched;
+        if (cursor == null) {
+            fetched = appointmentRepository.findSummaryPage(KeysetPaging.probe(size));
+        } else {
+            AppointmentKey after = AppointmentKey.decode(APPOINTMENTS_CURSOR, cursor);
+            fetched = appointmentRepository.findSummaryPageAfter(after.date(), after.time(), after.id(), KeysetPaging.probe(size));
+        }
+        return KeysetPage.of(fetched, size, appointment -> AppointmentKey.encode(APPOINTMENTS_CURSOR, appointment));
+    }
+
+    /**
+     * One page of a doctor's appointments in (date, time, id) order, starting after the cursor (first page when null)
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<AppointmentDto> getAppointmentsByDoctorPage(Long doctorId, String cursor, Integer limit) {
+        int size = keysetPaging.size(limit);
+        List<AppointmentDto> fetched;
+        if (cursor == null) {
+            fetched = appointmentRepository.findSummaryPageByDoctor(doctorId, KeysetPaging.probe(size));
+        } else {
+            AppointmentKey after = AppointmentKey.decode(DOCTOR_APPOINTMENTS_CURSOR, cursor);
+            fetched = appointmentRepository.findSummaryPageByDoctorAfter(doctorId, after.date(), after.time(), after.id(),
+                    KeysetPaging.probe(size));
+        }
+        return KeysetPage.of(fetched, size, appointment -> AppointmentKey.encode(DOCTOR_APPOINTMENTS_CURSOR, appointment));
+    }
+
     @Transactional(readOnly = true)
     public List<Appointment> getByPatientId(Long patientId) {
         Patient patient = patientRepository.findById(patientId)
@@ -191,19 +797,117 @@ public class AppointmentService {
     public Appointment updateStatus(Long id, AppointmentStatus status) {
         Appointment appointment = appointmentRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Appointment not found with ID: " + id));
+        AppointmentStatus previous = appointment.getStatus();
         appointment.setStatus(status);
-        return appointmentRepository.save(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        afterStatusChange(saved, previous);
+        dashboardEvents.statusChanged(saved, previous);
+        return saved;
     }
 
     public void deleteAppointment(Long id) {
-        if (!appointmentRepository.existsById(id)) {
-            throw new IllegalArgumentException("Appointment not found with ID: " + id);
+        Appointment appointment = appointmentRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Appointment not found with ID: " + id));
+        if (appointment.getStatus() == AppointmentStatus.COMPLETED) {
+            revenueLedgerService.recordReversal(appointment);
+        }
+        appointmentRepository.delete(appointment);
+        appointmentCounters.removed(appointment);
+        appointmentColumnStore.removed(appointment);
+        dashboardEvents.deleted(appointment);
+        if (appointment.getStatus() != null && appointment.getStatus().occupiesSlot()) {
+            releaseOrPromote(appointment.getDoctor(), appointment.getAppointmentDate(), appointment.getAppointmentTime());
         }
-        appointmentRepository.deleteById(id);
     }
 
     public List<Appointment> getByDoctorId(Long id) {
         // TODO Auto-generated method stub
         throw new UnsupportedOperationException("Unimplemented method 'getByDoctorId'");
     }
+
+    // Shared by single and bulk booking
+    private static void checkBookingDetails(Long patientId, Long doctorId, LocalDate date, LocalTime time, String reason) {
+        if (patientId == null || doctorId == null || date == null || time == null || reason == null || reason.trim().isEmpty()) {
+            throw new IllegalArgumentException("All appointment details are required");
+        }
+
+        if (date.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Cannot book appointment for past dates");
+        }
+
+        if (date.equals(LocalDate.now()) && time.isBefore(LocalTime.now())) {
+            throw new IllegalArgumentException("Cannot book appointment for past time today");
+        }
+    }
+
+    private record SlotKey(Long doctorId, LocalDate date, LocalTime time) {}
+
+    private static final String APPOINTMENTS_CURSOR = "appointments";
+    private static final String DOCTOR_APPOINTMENTS_CURSOR = "doctor-appointments";
+
+    // Sort key of the keyset pages, carried in the continuation token
+    private record AppointmentKey(LocalDate date, LocalTime time, Long id) {
+        static String encode(String list, AppointmentDto appointment) {
+            return KeysetPaging.encode(list, appointment.appointmentDate(), appointment.appointmentTime(), appointment.id());
+        }
+
+        static AppointmentKey decode(String list, String cursor) {
+            String[] key = KeysetPaging.decode(list, cursor, 3);
+            try {
+                return new AppointmentKey(key[0].isEmpty() ? null : LocalDate.parse(key[0]),
+                        key[1].isEmpty() ? null : LocalTime.parse(key[1]), Long.valueOf(key[2]));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+
+    // ------------------ IN-MEMORY UPKEEP ------------------
+    // Move the dashboard counters and the analytics column store, book or reverse revenue in the ledger,
+    // and occupy or free the appointment's slot in the in-memory index and free-slot calendar once the
+    // change has committed
+    private void afterStatusChange(Appointment appointment, AppointmentStatus previous) {
+        appointmentCounters.statusChanged(appointment, previous, appointment.getStatus());
+        if (previous != appointment.getStatus()) {
+            appointmentColumnStore.statusChanged(appointment, appointment.getStatus());
+        }
+
+        boolean completedBefore = previous == AppointmentStatus.COMPLETED;
+        boolean completedAfter = appointment.getStatus() == AppointmentStatus.COMPLETED;
+        if (completedAfter && !completedBefore) {
+            revenueLedgerService.recordCompletion(appointment);
+        } else if (completedBefore && !completedAfter) {
+            revenueLedgerService.recordReversal(appointment);
+        }
+
+        boolean occupiedBefore = previous != null && previous.occupiesSlot();
+        boolean occupiedAfter = appointment.getStatus() != null && appointment.getStatus().occupiesSlot();
+        if (occupiedBefore == occupiedAfter) {
+            return;
+        }
+
+        Long doctorId = appointment.getDoctor().getId();
+        LocalDate date = appointment.getAppointmentDate();
+        LocalTime time = appointment.getAppointmentTime();
+        if (occupiedAfter) {
+            TransactionHooks.afterCommit(() -> {
+                slotOccupancyIndex.markBooked(doctorId, date, time);
+                freeSlotCalendar.markBooked(doctorId, date, time);
+            });
+        } else {
+            releaseOrPromote(appointment.getDoctor(), date, time);
+        }
+    }
+
+    // A freed slot is first offered to the waitlist; if someone takes it, it never becomes free
+    private void releaseOrPromote(Doctor doctor, LocalDate date, LocalTime time) {
+        if (waitlistService.promoteInto(doctor, date, time).isPresent()) {
+            return;
+        }
+        Long doctorId = doctor.getId();
+        TransactionHooks.afterCommit(() -> {
+            slotOccupancyIndex.release(doctorId, date, time);
+            freeSlotCalendar.markFree(doctorId, date, time);
+        });
+    }
 }
@@ -1,8 +1,17 @@
 package com.examly.springapp.service;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
 
@@ -10,8 +19,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.examly.springapp.dto.AvailableSlotDto;
 import com.examly.springapp.model.Doctor;
 import com.examly.springapp.model.DoctorAvailability;
+import com.examly.springapp.model.SlotMask;
+import com.examly.springapp.repository.AppointmentRepository;
 import com.examly.springapp.repository.DoctorAvailabilityRepository;
 import com.examly.springapp.repository.DoctorRepository;
 
@@ -24,6 +36,18 @@ public class AvailabilityService {
     @Autowired
     private DoctorRepository doctorRepository;
 
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private FreeSlotCalendar freeSlotCalendar;
+
+    private static final int MAX_SEARCH_DAYS = 90;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     /**
      * Check if doctor is available on a specific day and time
      */
@@ -44,13 +68,8 @@ public class AvailabilityService {
                 return false;
             }
 
-            // Check if the time slot is available
-            List<String> timeSlots = availability.get().getTimeSlots();
-            
-            // Convert time to standard format for comparison
-            String formattedTime = formatTimeForComparison(timeSlot);
-            
-            return timeSlots != null && timeSlots.contains(formattedTime);
+            // Check if the time slot is available (bit test on the day's slot mask)
+            return availability.get().getSlotMask().contains(SlotMask.parseMinute(timeSlot));
             
         } catch (Exception e) {
             System.err.println("Error checking availability: " + e.getMessage());
@@ -84,6 +103,33 @@ public class AvailabilityService {
         }
     }
 
+    /**
+     * Doctor's active weekly slots indexed by DayOfWeek ordinal (empty mask on days off), which
+     * every booking path checks against: single, bulk, series and series moves. Null if the doctor
+     * has never set up a schedule; such doctors take bookings at any time.
+     */
+    public SlotMask[] getBookableSlotMasks(Doctor doctor) {
+        List<DoctorAvailability> rows = availabilityRepository.findByDoctor(doctor);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        return weeklySlotMasks(rows.stream().filter(row -> Boolean.TRUE.equals(row.getIsActive())).toList());
+    }
+
+    private static SlotMask[] weeklySlotMasks(List<DoctorAvailability> rows) {
+        SlotMask[] weekly = new SlotMask[7];
+        Arrays.fill(weekly, SlotMask.EMPTY);
+        for (DoctorAvailability availability : rows) {
+            try {
+                weekly[DayOfWeek.valueOf(availability.getDayOfWeek().toUpperCase()).ordinal()] =
+                        availability.getSlotMask() != null ? availability.getSlotMask() : SlotMask.EMPTY;
+            } catch (IllegalArgumentException e) {
+                // unknown day label
+            }
+        }
+        return weekly;
+    }
+
     /**
      * Get doctor's complete availability schedule
      */
@@ -113,6 +159,8 @@ public class AvailabilityService {
             // Delete existing availability for this doctor
             List<DoctorAvailability> existingAvailability = availabilityRepository.findByDoctor(doctor);
             availabilityRepository.deleteAll(existingAvailability);
+            // Deletes must reach the database before the inserts that reuse the same days (uk_doctor_availability_day)
+            availabilityRepository.flush();
 
             // Create new availability records
             List<DoctorAvailability> newAvailability = new ArrayList<>();
@@ -129,7 +177,12 @@ public class AvailabilityService {
                 }
             }
 
-            return availabilityRepository.saveAll(newAvailability);
+            List<DoctorAvailability> saved = availabilityRepository.saveAll(newAvailability);
+            TransactionHooks.afterCommit(() -> {
+                availabilityIndex.replaceDoctor(docId, saved);
+                freeSlotCalendar.replaceTemplate(docId, saved);
+            });
+            return saved;
             
         } catch (Exception e) {
             System.err.println("Error setting doctor availability: " + e.getMessage());
@@ -162,6 +215,10 @@ public class AvailabilityService {
 
             List<DoctorAvailability> availability = availabilityRepository.findByDoctor(doctor);
             availabilityRepository.deleteAll(availability);
+            TransactionHooks.afterCommit(() -> {
+                availabilityIndex.removeDoctor(docId);
+                freeSlotCalendar.replaceTemplate(docId, List.of());
+            });
             
         } catch (Exception e) {
             System.err.println("Error deleting doctor availability: " + e.getMessage());
@@ -186,14 +243,17 @@ public class AvailabilityService {
      */
     public List<Doctor> getAvailableDoctors(String dayOfWeek, String timeSlot) {
         try {
-            List<DoctorAvailability> availabilities = availabilityRepository
-                .findByDayOfWeekAndIsActive(dayOfWeek.toUpperCase(), true);
-
-            return availabilities.stream()
-                .filter(availability -> availability.getTimeSlots().contains(formatTimeForComparison(timeSlot)))
-                .map(DoctorAvailability::getDoctor)
-                .distinct()
-                .collect(Collectors.toList());
+            int minute = SlotMask.parseMinute(timeSlot);
+            if (minute < 0) {
+                return List.of();
+            }
+
+            // Bitset lookup in the inverted index, then one batch fetch of the doctors
+            List<Long> doctorIds = availabilityIndex.doctorsAvailableAt(dayOfWeek.toUpperCase(), minute);
+            if (doctorIds.isEmpty()) {
+                return List.of();
+            }
+            return doctorRepository.findAllById(doctorIds);
                 
         } catch (Exception e) {
             System.err.println("Error getting available doctors: " + e.getMessage());
@@ -202,21 +262,132 @@ public class AvailabilityService {
     }
 
     /**
-     * Format time string for consistent comparison
+     * Free slots of one doctor per date, read from the materialized calendar.
+     * The range is clipped to the calendar horizon; slots already past today are left out.
      */
-    private String formatTimeForComparison(String timeSlot) {
-        try {
-            // Handle different time formats
-            if (timeSlot.contains(":")) {
-                String[] parts = timeSlot.split(":");
-                int hour = Integer.parseInt(parts[0]);
-                int minute = Integer.parseInt(parts[1]);
-                return String.format("%02d:%02d", hour, minute);
+    public Map<LocalDate, List<String>> getFreeSlotCalendar(Long doctorId, LocalDate from, LocalDate to) {
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new IllegalArgumentException("Doctor not found with ID: " + doctorId);
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate start = (from == null || from.isBefore(today)) ? today : from;
+        LocalDate end = (to == null) ? start.plusDays(30) : to;
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+
+        int nowMinute = toMinuteOfDay(LocalTime.now());
+        Map<LocalDate, List<String>> calendar = new LinkedHashMap<>();
+        freeSlotCalendar.freeSlots(doctorId, start, end).forEach((date, free) -> {
+            List<String> slots = new ArrayList<>();
+            for (int minute : free.minutes()) {
+                if (!date.equals(today) || minute > nowMinute) {
+                    slots.add(SlotMask.format(minute));
+                }
             }
-            return timeSlot;
-        } catch (Exception e) {
-            return timeSlot;
+            calendar.put(date, slots);
+        });
+        return calendar;
+    }
+
+    /**
+     * Find the earliest free slots across all ACTIVE doctors of a specialization.
+     * Weekly templates and booked slots are each loaded with one query, then every day of the
+     * range is scanned in time order over a per-weekday list of (minute, doctor) pairs.
+     */
+    @Transactional(readOnly = true)
+    public List<AvailableSlotDto> findEarliestSlots(String specialization, String clinicName,
+                                                    LocalDate from, LocalDate to, int limit) {
+        if (specialization == null || specialization.trim().isEmpty()) {
+            throw new IllegalArgumentException("Specialization is required");
         }
+        LocalDate today = LocalDate.now();
+        LocalDate start = (from == null || from.isBefore(today)) ? today : from;
+        LocalDate end = (to == null) ? start.plusDays(30) : to;
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(start, end) > MAX_SEARCH_DAYS) {
+            end = start.plusDays(MAX_SEARCH_DAYS);
+        }
+        int wanted = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        String spec = specialization.trim();
+        String clinic = (clinicName == null || clinicName.trim().isEmpty()) ? null : clinicName.trim();
+
+        // Doctors are numbered 0..n-1 so a slot fits in a single long
+        List<Doctor> doctors = new ArrayList<>();
+        Map<Long, Integer> doctorIndex = new HashMap<>();
+        List<List<Long>> weekdaySlots = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            weekdaySlots.add(new ArrayList<>());
+        }
+
+        for (DoctorAvailability availability : availabilityRepository.findActiveForSlotSearch(spec, clinic)) {
+            int weekday;
+            try {
+                weekday = DayOfWeek.valueOf(availability.getDayOfWeek()).ordinal();
+            } catch (IllegalArgumentException e) {
+                continue; // unknown day label
+            }
+            Doctor doctor = availability.getDoctor();
+            Integer index = doctorIndex.get(doctor.getId());
+            if (index == null) {
+                index = doctors.size();
+                doctors.add(doctor);
+                doctorIndex.put(doctor.getId(), index);
+            }
+            for (int minute : availability.getSlotMask().minutes()) {
+                weekdaySlots.get(weekday).add(((long) minute << 32) | index);
+            }
+        }
+        if (doctors.isEmpty()) {
+            return List.of();
+        }
+
+        // Sorted by minute first, then doctor index
+        long[][] slotsByWeekday = new long[7][];
+        for (int i = 0; i < 7; i++) {
+            slotsByWeekday[i] = weekdaySlots.get(i).stream().mapToLong(Long::longValue).distinct().sorted().toArray();
+        }
+
+        Set<Long> booked = new HashSet<>();
+        for (Object[] row : appointmentRepository.findOccupiedSlotsForSearch(spec, clinic, start, end)) {
+            Integer index = doctorIndex.get((Long) row[0]);
+            if (index != null) {
+                booked.add(slotKey(index, (LocalDate) row[1], toMinuteOfDay((LocalTime) row[2])));
+            }
+        }
+
+        int nowMinute = LocalTime.now().getHour() * 60 + LocalTime.now().getMinute();
+        List<AvailableSlotDto> result = new ArrayList<>(wanted);
+        for (LocalDate date = start; !date.isAfter(end) && result.size() < wanted; date = date.plusDays(1)) {
+            boolean isToday = date.equals(today);
+            for (long entry : slotsByWeekday[date.getDayOfWeek().ordinal()]) {
+                int minute = (int) (entry >>> 32);
+                int index = (int) entry;
+                if (isToday && minute <= nowMinute) {
+                    continue;
+                }
+                if (booked.contains(slotKey(index, date, minute))) {
+                    continue;
+                }
+                Doctor doctor = doctors.get(index);
+                result.add(new AvailableSlotDto(doctor.getId(), doctor.getName(), doctor.getSpecialization(),
+                        doctor.getClinicName(), date, SlotMask.format(minute)));
+                if (result.size() == wanted) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static long slotKey(int doctorIndex, LocalDate date, int minute) {
+        return (((long) doctorIndex << 20 | (date.toEpochDay() & 0xFFFFF)) << 11) | minute;
+    }
+
+    private static int toMinuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
     }
 
     // Inner class for availability data transfer
@@ -0,0 +1,93 @@
+package com.examly.springapp.service;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Orders the reloads of the in-memory aggregates (appointment counters, hourly rollup,
+ * registration counters) against the commits that move them by deltas.
+ * A transaction with a pending delta holds the fence shared from just before it commits until
+ * its after-commit work has run; a reload holds it exclusively while it reads the database.
+ * A reload therefore either sees a commit and runs after its delta went to the old data, or
+ * does not see it and is in place before the delta arrives, so no delta is lost or counted twice.
+ */
+@Component
+public class CommitFence {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Run the change after the current transaction commits, or right away if there is none
+     */
+    void afterCommit(Runnable change) {
+        holdThroughCommit();
+        TransactionHooks.afterCommit(() -> apply(change));
+    }
+
+    /**
+     * Run a change to the aggregates; changes share the fence with each other
+     */
+    void apply(Runnable change) {
+        lock.readLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Run a reload with no commit of a delta in flight
+     */
+    void reload(Runnable load) {
+        if (lock.getReadHoldCount() > 0) {
+            // Reached from a commit's own after-commit work: waiting for the exclusive hold would wait on ourselves
+            load.run();
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            load.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void holdThroughCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Hold hold && hold.fence() == this) {
+                return; // one hold per transaction
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new Hold());
+    }
+
+    private final class Hold implements TransactionSynchronization {
+        private boolean held;
+
+        CommitFence fence() {
+            return CommitFence.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            lock.readLock().lock();
+            held = true;
+        }
+
+        // Runs after every afterCommit callback of the transaction, whether or not it committed
+        @Override
+        public void afterCompletion(int status) {
+            if (held) {
+                held = false;
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.examly.springapp.service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.examly.springapp.dto.AppointmentEvent;
+import com.examly.springapp.model.Appointment;
+import com.examly.springapp.model.AppointmentStatus;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes committed appointment changes to subscribed admin dashboards over server-sent events,
+ * so they render from a snapshot plus deltas instead of polling. Each subscriber gets a
+ * "snapshot" event first, then "delta" events with seq above the snapshot's seq.
+ *
+ * Sends never run on the request thread. A subscriber's unsent changes are conflated per
+ * appointment (two changes to one appointment become one), and once more than MAX_PENDING
+ * appointments are waiting they are dropped in favour of a fresh snapshot, so a slow
+ * dashboard costs a bounded amount of memory and never holds up bookings. A change that
+ * commits while a snapshot is being taken can show up in both; the next snapshot settles it.
+ */
+@Component
+public class DashboardEventHub {
+
+    private static final int MAX_SUBSCRIBERS = 200;
+    private static final int MAX_PENDING = 256;
+    private static final long EMITTER_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final long HEARTBEAT_SECONDS = 15;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Semaphore connectionPermits = new Semaphore(MAX_SUBSCRIBERS);
+
+    private final ExecutorService senders = Executors.newFixedThreadPool(4, r -> {
+        Thread thread = new Thread(r, "dashboard-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "dashboard-events-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DashboardEventHub() {
+        heartbeat.scheduleAtFixedRate(() -> subscribers.forEach(Subscriber::heartbeat),
+                HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Open a stream for one dashboard. The snapshot supplier is called for the first event and
+     * again whenever the subscriber falls too far behind. Throws IllegalStateException when full.
+     */
+    public SseEmitter subscribe(Supplier<Object> snapshot) {
+        if (!connectionPermits.tryAcquire()) {
+            throw new IllegalStateException("Too many live dashboard connections, please retry later");
+        }
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        Subscriber subscriber = new Subscriber(emitter, snapshot);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.start();
+        return emitter;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    // ------------------ CHANGES (published after commit) ------------------
+    public void booked(Appointment appointment) {
+        publish(AppointmentEvent.Type.BOOKED, appointment, null, null, null,
+                appointment.getStatus(), appointment.getAppointmentDate(), appointment.getAppointmentTime());
+    }
+
+    public void statusChanged(AppointmentEvent.Type type, Appointment appointment, AppointmentStatus previous) {
+        if (previous == appointment.getStatus()) {
+            return;
+        }
+        publish(type, appointment, previous, appointment.getAppointmentDate(), appointment.getAppointmentTime(),
+                appointment.getStatus(), appointment.getAppointmentDate(), appointment.getAppointmentTime());
+    }
+
+    // For status changes that do not say why, e.g. the generic status update
+    public void statusChanged(Appointment appointment, AppointmentStatus previous) {
+        AppointmentEvent.Type type = switch (appointment.getStatus()) {
+            case CONFIRMED, APPROVED -> AppointmentEvent.Type.APPROVED;
+            case REJECTED -> AppointmentEvent.Type.REJECTED;
+            case COMPLETED -> AppointmentEvent.Type.COMPLETED;
+            case CANCELLED -> AppointmentEvent.Type.CANCELLED;
+            case SCHEDULED, PENDING -> AppointmentEvent.Type.BOOKED;
+        };
+        statusChanged(type, appointment, previous);
+    }
+
+    public void moved(Appointment appointment, LocalDate toDate, LocalTime toTime) {
+        publish(AppointmentEvent.Type.MOVED, appointment, appointment.getStatus(), appointment.getAppointmentDate(),
+                appointment.getAppointmentTime(), appointment.getStatus(), toDate, toTime);
+    }
+
+    public void deleted(Appointment appointment) {
+        publish(AppointmentEvent.Type.DELETED, appointment, appointment.getStatus(), appointment.getAppointmentDate(),
+                appointment.getAppointmentTime(), null, null, null);
+    }
+
+    private void publish(AppointmentEvent.Type type, Appointment appointment,
+                         AppointmentStatus previousStatus, LocalDate previousDate, LocalTime previousTime,
+                         AppointmentStatus status, LocalDate date, LocalTime time) {
+        // Captured now: the entity may change again before the transaction commits
+        AppointmentEvent event = new AppointmentEvent(0, type, appointment.getId(),
+                appointment.getDoctor().getId(), appointment.getPatient().getId(),
+                previousStatus, previousDate, previousTime, status, date, time,
+                appointment.getDoctor().getConsultationFee(), LocalDateTime.now());
+        TransactionHooks.afterCommit(() -> {
+            if (subscribers.isEmpty()) {
+                sequence.incrementAndGet();
+                return;
+            }
+            AppointmentEvent numbered = event.withSeq(sequence.incrementAndGet());
+            subscribers.forEach(subscriber -> subscriber.offer(numbered));
+        });
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Supplier<Object> snapshot;
+
+        // Guarded by this; insertion order is seq order because a merged change is re-added at the end
+        private final Map<Long, AppointmentEvent> pending = new LinkedHashMap<>();
+        private boolean needsSnapshot = true;
+        private boolean heartbeatDue;
+        private boolean draining;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter, Supplier<Object> snapshot) {
+            this.emitter = emitter;
+            this.snapshot = snapshot;
+        }
+
+        synchronized void start() {
+            scheduleDrain();
+        }
+
+        synchronized void offer(AppointmentEvent event) {
+            if (closed || needsSnapshot) {
+                return; // the coming snapshot already includes it
+            }
+            AppointmentEvent queued = pending.remove(event.appointmentId());
+            AppointmentEvent merged = queued == null ? event : queued.mergedWith(event);
+            if (!merged.isNoop()) {
+                pending.put(event.appointmentId(), merged);
+            }
+            if (pending.size() > MAX_PENDING) {
+                pending.clear();
+                needsSnapshot = true;
+            }
+            scheduleDrain();
+        }
+
+        synchronized void heartbeat() {
+            heartbeatDue = true;
+            scheduleDrain();
+        }
+
+        synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+            subscribers.remove(this);
+            connectionPermits.release();
+        }
+
+        private void scheduleDrain() {
+            if (!draining && !closed) {
+                draining = true;
+                senders.execute(this::drain);
+            }
+        }
+
+        // Runs on a sender thread, one drain at a time per subscriber
+        private void drain() {
+            while (true) {
+                boolean sendSnapshot;
+                boolean sendHeartbeat;
+                List<AppointmentEvent> batch;
+                long snapshotSeq;
+                synchronized (this) {
+                    if (closed || (!needsSnapshot && !heartbeatDue && pending.isEmpty())) {
+                        draining = false;
+                        return;
+                    }
+                    sendSnapshot = needsSnapshot;
+                    sendHeartbeat = heartbeatDue;
+                    // Changes committed after this point are offered from now on and carry a higher seq
+                    snapshotSeq = sequence.get();
+                    batch = new ArrayList<>(pending.values());
+                    pending.clear();
+                    needsSnapshot = false;
+                    heartbeatDue = false;
+                }
+                try {
+                    if (sendSnapshot) {
+                        emitter.send(SseEmitter.event().name("snapshot").id(String.valueOf(snapshotSeq))
+                                .data(Map.of("seq", snapshotSeq, "data", snapshot.get())));
+                    } else {
+                        for (AppointmentEvent event : batch) {
+                            emitter.send(SseEmitter.event().name("delta").id(String.valueOf(event.seq())).data(event));
+                        }
+                        if (sendHeartbeat && batch.isEmpty()) {
+                            emitter.send(SseEmitter.event().comment("keep-alive"));
+                        }
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away
+                    close();
+                    emitter.completeWithError(e);
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
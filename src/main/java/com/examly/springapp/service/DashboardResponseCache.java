@@ -0,0 +1,175 @@
+package com.examly.springapp.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Short-lived cache for admin dashboard responses, which many staff open at the same time.
+ * An answer younger than the TTL is served as is. Up to the stale window past the TTL it is
+ * still served, while one background refresh recomputes it. Past that, callers wait for a
+ * recompute, but concurrent callers for the same key share one recompute instead of each
+ * running their own. Cached values are shared, so callers must not modify them.
+ * invalidateAll() starts a new generation: a recompute that began before it still answers
+ * its own callers, but its result is not cached and later callers do not join it.
+ */
+@Component
+public class DashboardResponseCache {
+
+    private final long ttlNanos;
+    private final long staleNanos;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final ExecutorService refresher;
+
+    // Exported through metrics()
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder recomputes = new LongAdder();
+    private final LongAdder recomputeNanos = new LongAdder();
+    private final AtomicLong maxRecomputeNanos = new AtomicLong();
+
+    public DashboardResponseCache(@Value("${dashboard.cache.ttl-seconds:10}") long ttlSeconds,
+                                  @Value("${dashboard.cache.stale-seconds:30}") long staleSeconds) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.staleNanos = TimeUnit.SECONDS.toNanos(staleSeconds);
+        this.refresher = Executors.newFixedThreadPool(2, r -> {
+            Thread thread = new Thread(r, "dashboard-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The cached answer for the key, computing it with the loader when missing or too old.
+     * A loader failure is rethrown to every caller waiting on it and nothing is cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        Entry entry = entries.get(key);
+        long now = System.nanoTime();
+        if (entry != null) {
+            long age = now - entry.computedAt();
+            if (age < ttlNanos) {
+                hits.increment();
+                return (T) entry.value();
+            }
+            if (age < ttlNanos + staleNanos) {
+                staleHits.increment();
+                refreshInBackground(key, loader);
+                return (T) entry.value();
+            }
+        }
+        misses.increment();
+        return (T) join(recompute(key, loader, false));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        inFlight.clear();
+        entries.clear();
+    }
+
+    /**
+     * Counts since startup, plus recompute latency in milliseconds
+     */
+    public Map<String, Object> metrics() {
+        long runs = recomputes.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("hits", hits.sum());
+        metrics.put("staleHits", staleHits.sum());
+        metrics.put("misses", misses.sum());
+        metrics.put("coalescedMisses", coalesced.sum());
+        metrics.put("recomputes", runs);
+        metrics.put("recomputeFailures", failures.sum());
+        metrics.put("avgRecomputeMillis", runs == 0 ? 0.0 : recomputeNanos.sum() / (double) runs / 1_000_000);
+        metrics.put("maxRecomputeMillis", maxRecomputeNanos.get() / 1_000_000.0);
+        metrics.put("entries", entries.size());
+        metrics.put("ttlSeconds", TimeUnit.NANOSECONDS.toSeconds(ttlNanos));
+        metrics.put("staleSeconds", TimeUnit.NANOSECONDS.toSeconds(staleNanos));
+        return metrics;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void refreshInBackground(String key, Supplier<?> loader) {
+        recompute(key, loader, true);
+    }
+
+    // Start a recompute unless one is already running for the key; either way return the one in flight
+    private CompletableFuture<Object> recompute(String key, Supplier<?> loader, boolean async) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            if (!async) {
+                coalesced.increment();
+            }
+            return running;
+        }
+        long startedIn = generation.get();
+        Runnable task = () -> {
+            long start = System.nanoTime();
+            try {
+                Object value = loader.get();
+                long end = System.nanoTime();
+                // Checked under the key's bin lock: an invalidateAll that bumps the generation after
+                // the check clears the bin only after the entry is in it
+                entries.compute(key, (k, old) -> generation.get() == startedIn ? new Entry(value, end) : old);
+                record(end - start);
+                mine.complete(value);
+            } catch (RuntimeException e) {
+                failures.increment();
+                mine.completeExceptionally(e);
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        };
+        if (async) {
+            refresher.execute(task);
+        } else {
+            task.run();
+        }
+        return mine;
+    }
+
+    private void record(long nanos) {
+        recomputes.increment();
+        recomputeNanos.add(nanos);
+        maxRecomputeNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static Object join(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry(Object value, long computedAt) {}
+}
@@ -0,0 +1,168 @@
+package com.examly.springapp.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.model.DoctorAvailability;
+import com.examly.springapp.model.SlotMask;
+import com.examly.springapp.repository.DoctorAvailabilityRepository;
+
+/**
+ * Inverted index from (day of week, minute of day) to the set of doctor ids working then.
+ * Built from all active DoctorAvailability rows on first use and patched per doctor
+ * whenever a doctor's weekly schedule is replaced or deleted.
+ * The bitsets hold dense codes rather than the ids themselves, so any Long id fits and the
+ * bitsets stay as small as the number of doctors with a schedule.
+ */
+@Component
+public class DoctorAvailabilityIndex {
+
+    @Autowired
+    private DoctorAvailabilityRepository availabilityRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // day -> minute of day -> doctor ids
+    private final Map<String, Map<Integer, BitSet>> slots = new HashMap<>();
+
+    // doctor id -> entries it contributed, so a doctor can be removed without a full rebuild
+    private final Map<Long, List<SlotEntry>> entriesByDoctor = new HashMap<>();
+
+    // doctor id <-> bit position; codes of removed doctors are reused
+    private final Map<Long, Integer> codeByDoctor = new HashMap<>();
+    private final List<Long> doctorByCode = new ArrayList<>();
+    private final Deque<Integer> freeCodes = new ArrayDeque<>();
+
+    private volatile boolean loaded;
+
+    /**
+     * Ids of doctors with an active slot at this day and minute
+     */
+    public List<Long> doctorsAvailableAt(String dayOfWeek, int minuteOfDay) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Map<Integer, BitSet> day = slots.get(dayOfWeek);
+            BitSet doctors = day != null ? day.get(minuteOfDay) : null;
+            if (doctors == null) {
+                return List.of();
+            }
+            List<Long> ids = new ArrayList<>(doctors.cardinality());
+            for (int code = doctors.nextSetBit(0); code >= 0; code = doctors.nextSetBit(code + 1)) {
+                ids.add(doctorByCode.get(code));
+            }
+            ids.sort(null);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replace everything indexed for a doctor with their new weekly schedule
+     */
+    public void replaceDoctor(Long doctorId, List<DoctorAvailability> availability) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return; // the first lookup loads the committed schedule anyway
+            }
+            removeDoctorLocked(doctorId);
+            for (DoctorAvailability row : availability) {
+                if (Boolean.TRUE.equals(row.getIsActive()) && row.getSlotMask() != null) {
+                    addLocked(doctorId, row.getDayOfWeek(), row.getSlotMask());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a doctor from every day and slot
+     */
+    public void removeDoctor(Long doctorId) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                removeDoctorLocked(doctorId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            for (Object[] row : availabilityRepository.findActiveSlotEntries()) {
+                addLocked((Long) row[0], (String) row[1], (SlotMask) row[2]);
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addLocked(Long doctorId, String dayOfWeek, SlotMask mask) {
+        if (mask == null) {
+            return;
+        }
+        String day = dayOfWeek.toUpperCase();
+        Map<Integer, BitSet> daySlots = slots.computeIfAbsent(day, d -> new HashMap<>());
+        List<SlotEntry> entries = entriesByDoctor.computeIfAbsent(doctorId, id -> new ArrayList<>());
+        int code = codeByDoctor.computeIfAbsent(doctorId, this::assignCode);
+        for (int minute : mask.minutes()) {
+            daySlots.computeIfAbsent(minute, m -> new BitSet()).set(code);
+            entries.add(new SlotEntry(day, minute));
+        }
+    }
+
+    private void removeDoctorLocked(Long doctorId) {
+        List<SlotEntry> entries = entriesByDoctor.remove(doctorId);
+        if (entries == null) {
+            return;
+        }
+        int code = codeByDoctor.remove(doctorId);
+        for (SlotEntry entry : entries) {
+            Map<Integer, BitSet> day = slots.get(entry.day());
+            BitSet doctors = day != null ? day.get(entry.minute()) : null;
+            if (doctors != null) {
+                doctors.clear(code);
+                if (doctors.isEmpty()) {
+                    day.remove(entry.minute());
+                }
+            }
+        }
+        doctorByCode.set(code, null);
+        freeCodes.push(code);
+    }
+
+    private int assignCode(Long doctorId) {
+        Integer code = freeCodes.poll();
+        if (code != null) {
+            doctorByCode.set(code, doctorId);
+            return code;
+        }
+        doctorByCode.add(doctorId);
+        return doctorByCode.size() - 1;
+    }
+
+    private record SlotEntry(String day, int minute) {}
+}
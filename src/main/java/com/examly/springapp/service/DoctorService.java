@@ -1,5 +1,6 @@
 package com.examly.springapp.service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -9,6 +10,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.examly.springapp.dto.DoctorDto;
+import com.examly.springapp.dto.KeysetPage;
 import com.examly.springapp.model.Doctor;
 import com.examly.springapp.model.Doctor.ProfileStatus;
 import com.examly.springapp.model.DoctorAvailability;
@@ -18,6 +21,8 @@ import com.examly.springapp.repository.DoctorRepository;
 @Service
 @Transactional
 public class DoctorService {
+
+    private static final String DOCTORS_CURSOR = "doctors";
     
     @Autowired
     private DoctorRepository doctorRepository;
@@ -28,6 +33,15 @@ public class DoctorService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private DoctorAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private FreeSlotCalendar freeSlotCalendar;
+
+    @Autowired
+    private KeysetPaging keysetPaging;
+
     // =============================================================================
     // FR2: Admin Features for Doctor Profile Management
     // =============================================================================
@@ -206,6 +220,17 @@ public class DoctorService {
         return doctorRepository.findAll();
     }
 
+    /**
+     * One page of all doctors in id order, starting after the cursor (first page when null)
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<DoctorDto> getDoctorsPage(String cursor, Integer limit) {
+        int size = keysetPaging.size(limit);
+        List<DoctorDto> fetched = doctorRepository.findSummaryPageAfter(KeysetPaging.afterId(DOCTORS_CURSOR, cursor),
+                KeysetPaging.probe(size));
+        return KeysetPage.of(fetched, size, doctor -> KeysetPaging.encode(DOCTORS_CURSOR, doctor.id()));
+    }
+
     public Doctor getDoctorById(Long id) {
         Optional<Doctor> doctor = doctorRepository.findById(id);
         return doctor.orElse(null);
@@ -229,9 +254,14 @@ public class DoctorService {
             if (doctorRepository.existsById(id)) {
                 Doctor doctor = doctorRepository.findById(id).orElse(null);
                 if (doctor != null) {
-                    availabilityRepository.deleteByDoctor(doctor);
+                    // Row by row so only this doctor's entries leave the doctor_availability cache region
+                    availabilityRepository.deleteAll(availabilityRepository.findByDoctor(doctor));
                 }
                 doctorRepository.deleteById(id);
+                TransactionHooks.afterCommit(() -> {
+                    availabilityIndex.removeDoctor(id);
+                    freeSlotCalendar.removeDoctor(id);
+                });
                 return "Doctor deleted successfully";
             } else {
                 return "Doctor not found with ID: " + id;
@@ -276,8 +306,12 @@ public class DoctorService {
             Doctor doctor = doctorRepository.findById(doctorId)
                     .orElseThrow(() -> new RuntimeException("Doctor not found with ID: " + doctorId));
 
-            availabilityRepository.deleteByDoctor(doctor);
+            // Deleted row by row so only this doctor's entries leave the doctor_availability cache region
+            // (a bulk DELETE evicts the whole region), and flushed before the inserts reuse the same days
+            availabilityRepository.deleteAll(availabilityRepository.findByDoctor(doctor));
+            availabilityRepository.flush();
             
+            List<DoctorAvailability> saved = new ArrayList<>();
             if (availabilityRequest.getAvailability() != null) {
                 for (AvailabilityRequest.AvailabilitySlot slot : availabilityRequest.getAvailability()) {
                     if (slot.isAvailable() && slot.getTimeSlots() != null && !slot.getTimeSlots().isEmpty()) {
@@ -287,10 +321,14 @@ public class DoctorService {
                         availability.setTimeSlots(slot.getTimeSlots());
                         availability.setIsActive(true);
                         
-                        availabilityRepository.save(availability);
+                        saved.add(availabilityRepository.save(availability));
                     }
                 }
             }
+            TransactionHooks.afterCommit(() -> {
+                availabilityIndex.replaceDoctor(doctorId, saved);
+                freeSlotCalendar.replaceTemplate(doctorId, saved);
+            });
             
             return "Availability updated successfully";
         } catch (Exception e) {
@@ -0,0 +1,143 @@
+package com.examly.springapp.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.examly.springapp.dto.DoctorRankingDto;
+import com.examly.springapp.model.Doctor;
+import com.examly.springapp.repository.AppointmentRepository;
+import com.examly.springapp.repository.DoctorRepository;
+
+/**
+ * Admin dashboard statistics about doctors, computed with grouped queries
+ * instead of loading every doctor's appointments.
+ */
+@Service
+@Transactional(readOnly = true)
+public class DoctorStatsService {
+
+    public static final int MAX_TOP_DOCTORS = 100;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    /**
+     * Time window for rankings; custom from/to dates take precedence
+     */
+    public enum Window {
+        ALL, LAST_7_DAYS, LAST_30_DAYS, THIS_MONTH;
+
+        LocalDate from(LocalDate today) {
+            return switch (this) {
+                case ALL -> null;
+                case LAST_7_DAYS -> today.minusDays(7);
+                case LAST_30_DAYS -> today.minusDays(30);
+                case THIS_MONTH -> today.withDayOfMonth(1);
+            };
+        }
+    }
+
+    // Ranked by total appointments, then completed, then lowest id
+    private static final Comparator<long[]> RANK = Comparator
+            .<long[]>comparingLong(row -> row[1])
+            .thenComparingLong(row -> row[2])
+            .thenComparing(Comparator.<long[]>comparingLong(row -> row[0]).reversed());
+
+    /**
+     * Totals for the doctor stats card: doctor count, specialization distribution, doctors with
+     * appointments in the last 30 days and average appointments per doctor. Always four queries,
+     * however many doctors there are.
+     */
+    public Map<String, Object> doctorStats() {
+        long totalDoctors = doctorRepository.count();
+
+        Map<String, Long> specializationCounts = new LinkedHashMap<>();
+        for (Object[] row : doctorRepository.countBySpecialization()) {
+            specializationCounts.put((String) row[0], (Long) row[1]);
+        }
+
+        long activeDoctors = appointmentRepository.countDoctorsWithAppointmentsSince(LocalDate.now().minusDays(30));
+        long totalAppointments = appointmentRepository.count();
+        double avgAppointments = totalDoctors > 0 ? totalAppointments / (double) totalDoctors : 0.0;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalDoctors", totalDoctors);
+        stats.put("specializationDistribution", specializationCounts);
+        stats.put("activeDoctors", activeDoctors);
+        stats.put("avgAppointmentsPerDoctor", Math.round(avgAppointments * 100.0) / 100.0);
+        return stats;
+    }
+
+    /**
+     * Top K doctors by appointment count in a window: one grouped query, a K-sized heap,
+     * then one query for the K doctors.
+     */
+    public List<DoctorRankingDto> topDoctors(int limit, Window window, LocalDate from, LocalDate to) {
+        int k = Math.max(1, Math.min(limit, MAX_TOP_DOCTORS));
+        LocalDate today = LocalDate.now();
+        LocalDate start = from != null ? from : (window != null ? window : Window.ALL).from(today);
+        LocalDate end = to;
+
+        // Min-heap holding the best K rows seen so far: [doctorId, total, completed]
+        PriorityQueue<long[]> heap = new PriorityQueue<>(k + 1, RANK);
+        for (Object[] row : appointmentRepository.countByDoctorBetween(start, end)) {
+            heap.offer(new long[] { (Long) row[0], ((Number) row[1]).longValue(), ((Number) row[2]).longValue() });
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+
+        List<long[]> ranked = new ArrayList<>(heap);
+        ranked.sort(RANK.reversed());
+
+        Set<Long> ids = ranked.stream().map(row -> row[0]).collect(Collectors.toSet());
+        Map<Long, Doctor> doctors = doctorRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Doctor::getId, Function.identity()));
+
+        List<DoctorRankingDto> result = new ArrayList<>(k);
+        for (long[] row : ranked) {
+            Doctor doctor = doctors.get(row[0]);
+            if (doctor != null) {
+                result.add(ranking(doctor, row[1], row[2]));
+            }
+        }
+
+        // Fewer than K doctors had appointments: fill up with doctors that had none, as before
+        if (result.size() < k) {
+            Set<Long> seen = new HashSet<>(ids);
+            for (Doctor doctor : doctorRepository.findAll(PageRequest.of(0, k + seen.size(), Sort.by("id")))) {
+                if (result.size() >= k) {
+                    break;
+                }
+                if (seen.add(doctor.getId())) {
+                    result.add(ranking(doctor, 0, 0));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static DoctorRankingDto ranking(Doctor doctor, long total, long completed) {
+        long rate = total > 0 ? Math.round((completed / (double) total) * 100) : 0;
+        return new DoctorRankingDto(doctor.getId(), doctor.getName(), doctor.getSpecialization(), total, completed, rate);
+    }
+}
@@ -0,0 +1,65 @@
+package com.examly.springapp.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Hit ratios of the Hibernate second-level and query cache regions configured in ehcache.xml,
+ * read from the session factory statistics (counts since startup).
+ */
+@Component
+public class EntityCacheMetrics {
+
+    private static final List<String> ENTITY_REGIONS =
+            List.of("doctor", "doctor_availability_slots", "doctor_availability", "availability");
+    private static final List<String> QUERY_REGIONS = List.of("doctor_queries", "availability_queries");
+
+    private final Statistics statistics;
+
+    public EntityCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : ENTITY_REGIONS) {
+            regions.put(region, regionMetrics(statistics.getDomainDataRegionStatistics(region)));
+        }
+        for (String region : QUERY_REGIONS) {
+            regions.put(region, regionMetrics(statistics.getQueryRegionStatistics(region)));
+        }
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        metrics.put("secondLevelHitRatio", ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()));
+        metrics.put("queryHitRatio", ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+        metrics.put("regions", regions);
+        return metrics;
+    }
+
+    private static Map<String, Object> regionMetrics(CacheRegionStatistics region) {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        if (region == null) {
+            return metrics;
+        }
+        metrics.put("hits", region.getHitCount());
+        metrics.put("misses", region.getMissCount());
+        metrics.put("puts", region.getPutCount());
+        metrics.put("hitRatio", ratio(region.getHitCount(), region.getMissCount()));
+        metrics.put("entries", region.getElementCountInMemory());
+        return metrics;
+    }
+
+    private static double ratio(long hits, long misses) {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : hits / (double) lookups;
+    }
+}
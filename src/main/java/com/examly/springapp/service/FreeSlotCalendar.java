@@ -0,0 +1,210 @@
+package com.examly.springapp.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.model.DoctorAvailability;
+import com.examly.springapp.model.SlotMask;
+import com.examly.springapp.repository.AppointmentRepository;
+import com.examly.springapp.repository.DoctorAvailabilityRepository;
+
+/**
+ * Materialized free slots per doctor and date for a rolling horizon (today + 8 weeks).
+ * A doctor's calendar is built with two queries on first use, then kept current by
+ * AppointmentService (booked / freed slots) and the availability services (new weekly
+ * template), so a month view is a sub-map lookup.
+ *
+ * A calendar is registered before it is read from the database and the read runs under its
+ * lock, so a change that commits while the read is running waits for it and is applied on
+ * top; a change that finds the calendar not yet read is already visible to the read.
+ */
+@Component
+public class FreeSlotCalendar {
+
+    public static final int HORIZON_DAYS = 8 * 7;
+
+    @Autowired
+    private DoctorAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private final Map<Long, DoctorCalendar> calendars = new ConcurrentHashMap<>();
+
+    /**
+     * Free slots per date between from and to, clipped to the horizon
+     */
+    public Map<LocalDate, SlotMask> freeSlots(Long doctorId, LocalDate from, LocalDate to) {
+        DoctorCalendar calendar = calendars.computeIfAbsent(doctorId, id -> new DoctorCalendar());
+        synchronized (calendar) {
+            if (!calendar.isLoaded()) {
+                load(doctorId, calendar);
+            } else {
+                roll(doctorId, calendar);
+            }
+            LocalDate start = from.isBefore(calendar.start) ? calendar.start : from;
+            LocalDate end = to.isAfter(calendar.end) ? calendar.end : to;
+            if (end.isBefore(start)) {
+                return Map.of();
+            }
+            return new LinkedHashMap<>(calendar.free.subMap(start, true, end, true));
+        }
+    }
+
+    /**
+     * A slot was booked (after commit)
+     */
+    public void markBooked(Long doctorId, LocalDate date, LocalTime time) {
+        DoctorCalendar calendar = calendars.get(doctorId);
+        if (calendar == null) {
+            return; // not loaded yet, the first read picks the booking up from the database
+        }
+        int minute = minuteOf(time);
+        synchronized (calendar) {
+            if (!calendar.isLoaded() || !calendar.covers(date)) {
+                return;
+            }
+            calendar.booked.merge(date, SlotMask.ofMinutes(minute), (old, added) -> old.with(minute));
+            calendar.free.computeIfPresent(date, (d, free) -> free.withoutMinute(minute));
+        }
+    }
+
+    /**
+     * A slot was given back by a cancelled, rejected or deleted appointment (after commit)
+     */
+    public void markFree(Long doctorId, LocalDate date, LocalTime time) {
+        DoctorCalendar calendar = calendars.get(doctorId);
+        if (calendar == null) {
+            return;
+        }
+        int minute = minuteOf(time);
+        synchronized (calendar) {
+            if (!calendar.isLoaded() || !calendar.covers(date)) {
+                return;
+            }
+            calendar.booked.computeIfPresent(date, (d, booked) -> {
+                SlotMask left = booked.withoutMinute(minute);
+                return left.isEmpty() ? null : left;
+            });
+            if (calendar.weekly[date.getDayOfWeek().ordinal()].contains(minute)) {
+                calendar.free.computeIfPresent(date, (d, free) -> free.with(minute));
+            }
+        }
+    }
+
+    /**
+     * The doctor's weekly template was replaced (after commit); bookings are kept
+     */
+    public void replaceTemplate(Long doctorId, List<DoctorAvailability> availability) {
+        DoctorCalendar calendar = calendars.get(doctorId);
+        if (calendar == null) {
+            return;
+        }
+        synchronized (calendar) {
+            if (!calendar.isLoaded()) {
+                return;
+            }
+            calendar.setWeekly(availability);
+            for (LocalDate date = calendar.start; !date.isAfter(calendar.end); date = date.plusDays(1)) {
+                calendar.materialize(date);
+            }
+        }
+    }
+
+    public void removeDoctor(Long doctorId) {
+        calendars.remove(doctorId);
+    }
+
+    public void clear() {
+        calendars.clear();
+    }
+
+    // Caller holds the calendar's lock
+    private void load(Long doctorId, DoctorCalendar calendar) {
+        LocalDate today = LocalDate.now();
+        calendar.setWeekly(availabilityRepository.findActiveAvailabilityByDoctorId(doctorId));
+        loadBookings(doctorId, calendar, today, today.plusDays(HORIZON_DAYS - 1));
+        for (LocalDate date = today; !date.isAfter(today.plusDays(HORIZON_DAYS - 1)); date = date.plusDays(1)) {
+            calendar.materialize(date);
+        }
+        calendar.start = today;
+        calendar.end = today.plusDays(HORIZON_DAYS - 1);
+    }
+
+    // Move the horizon forward when the date has changed since the calendar was built
+    private void roll(Long doctorId, DoctorCalendar calendar) {
+        LocalDate today = LocalDate.now();
+        if (!today.isAfter(calendar.start)) {
+            return;
+        }
+        LocalDate newEnd = today.plusDays(HORIZON_DAYS - 1);
+        calendar.booked.headMap(today, false).clear();
+        calendar.free.headMap(today, false).clear();
+
+        LocalDate firstNew = calendar.end.isBefore(today) ? today : calendar.end.plusDays(1);
+        calendar.start = today;
+        calendar.end = newEnd;
+        loadBookings(doctorId, calendar, firstNew, newEnd);
+        for (LocalDate date = firstNew; !date.isAfter(newEnd); date = date.plusDays(1)) {
+            calendar.materialize(date);
+        }
+    }
+
+    private void loadBookings(Long doctorId, DoctorCalendar calendar, LocalDate from, LocalDate to) {
+        for (Object[] row : appointmentRepository.findOccupiedSlotsForDoctor(doctorId, from, to)) {
+            int minute = minuteOf((LocalTime) row[1]);
+            calendar.booked.merge((LocalDate) row[0], SlotMask.ofMinutes(minute), (old, added) -> old.with(minute));
+        }
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static final class DoctorCalendar {
+        private final SlotMask[] weekly = new SlotMask[7]; // by DayOfWeek ordinal
+        private final NavigableMap<LocalDate, SlotMask> booked = new TreeMap<>();
+        private final NavigableMap<LocalDate, SlotMask> free = new TreeMap<>();
+        private LocalDate start; // null until the calendar has been read from the database
+        private LocalDate end;
+
+        boolean isLoaded() {
+            return start != null;
+        }
+
+        boolean covers(LocalDate date) {
+            return !date.isBefore(start) && !date.isAfter(end);
+        }
+
+        void setWeekly(List<DoctorAvailability> availability) {
+            Arrays.fill(weekly, SlotMask.EMPTY);
+            for (DoctorAvailability row : availability) {
+                if (!Boolean.TRUE.equals(row.getIsActive()) || row.getSlotMask() == null) {
+                    continue;
+                }
+                try {
+                    weekly[DayOfWeek.valueOf(row.getDayOfWeek().toUpperCase()).ordinal()] = row.getSlotMask();
+                } catch (IllegalArgumentException e) {
+                    // unknown day label
+                }
+            }
+        }
+
+        void materialize(LocalDate date) {
+            SlotMask template = weekly[date.getDayOfWeek().ordinal()];
+            SlotMask taken = booked.get(date);
+            free.put(date, taken == null ? template : template.without(taken));
+        }
+    }
+}
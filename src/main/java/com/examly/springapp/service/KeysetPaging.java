@@ -0,0 +1,94 @@
+package com.examly.springapp.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Page sizes and continuation tokens for the keyset-paginated list endpoints. A token is
+ * the sort key of the last row of a page, tagged with the list it belongs to and base64url
+ * encoded; it is opaque to clients and only meaningful for the list that issued it.
+ * Tokens are not signed: an edited token that still parses only changes where the list
+ * resumes, and every row it can reach is one the caller may list anyway.
+ */
+@Component
+public class KeysetPaging {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String SEPARATOR = "|";
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    public KeysetPaging(@Value("${pagination.default-size:50}") int defaultSize,
+                        @Value("${pagination.max-size:200}") int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.defaultSize = Math.min(Math.max(1, defaultSize), this.maxSize);
+    }
+
+    /**
+     * The page size to use for a requested limit: the default when none is given, never above the cap
+     */
+    public int size(Integer requested) {
+        if (requested == null) {
+            return defaultSize;
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return Math.min(requested, maxSize);
+    }
+
+    // One row more than the page, see KeysetPage.of
+    public static Pageable probe(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    // A null key part is written as an empty field
+    public static String encode(String list, Object... key) {
+        StringBuilder raw = new StringBuilder(list);
+        for (Object part : key) {
+            raw.append(SEPARATOR).append(part == null ? "" : part);
+        }
+        return ENCODER.encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The sort key parts of a token issued by encode for the same list.
+     * Throws IllegalArgumentException for tokens that are malformed or belong to another list.
+     */
+    public static String[] decode(String list, String cursor, int parts) {
+        String raw;
+        try {
+            raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String[] fields = raw.split("\\" + SEPARATOR, -1);
+        if (fields.length != parts + 1 || !fields[0].equals(list)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String[] key = new String[parts];
+        System.arraycopy(fields, 1, key, 0, parts);
+        return key;
+    }
+
+    /**
+     * The id to continue after for lists ordered by id alone; 0 (before every row) when there is no cursor
+     */
+    public static long afterId(String list, String cursor) {
+        if (cursor == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(decode(list, cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.examly.springapp.service;
+
+import java.time.LocalDate;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.model.Patient;
+import com.examly.springapp.repository.PatientRepository;
+
+/**
+ * Patient registrations per day, for the admin registration trends. Days are kept sorted so
+ * any window, and the running total up to any day, is a walk over the days in it rather than
+ * a scan of the patient table. Built with one GROUP BY query on first read or on rebuild(),
+ * then moved by PatientService as patients are registered and deleted. Deltas and reloads
+ * are ordered by the CommitFence; the dashboard counters' rebuild endpoint also rebuilds these.
+ */
+@Component
+public class PatientRegistrationCounters {
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private CommitFence commitFence;
+
+    private volatile Buckets buckets;
+
+    // ------------------ READS ------------------
+    /**
+     * Every patient, including ones without a registration date
+     */
+    public long total() {
+        return loaded().total.sum();
+    }
+
+    /**
+     * Registrations from 'from' to 'to', both inclusive
+     */
+    public long between(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return 0;
+        }
+        return sum(loaded().byDay.subMap(from, true, to, true));
+    }
+
+    /**
+     * Patients registered on or before the day, plus those without a registration date
+     */
+    public long cumulative(LocalDate through) {
+        Buckets current = loaded();
+        return current.undated.sum() + sum(current.byDay.headMap(through, true));
+    }
+
+    /**
+     * Registrations in the window as a percentage of the patients there were before it
+     */
+    public double growthRate(LocalDate from, LocalDate to) {
+        long before = cumulative(from.minusDays(1));
+        return between(from, to) / (double) Math.max(before, 1) * 100;
+    }
+
+    // ------------------ UPDATES (registered to run after commit) ------------------
+    public void registered(Patient patient) {
+        LocalDate day = registrationDay(patient);
+        commitFence.afterCommit(() -> apply(day, 1));
+    }
+
+    public void removed(Patient patient) {
+        LocalDate day = registrationDay(patient);
+        commitFence.afterCommit(() -> apply(day, -1));
+    }
+
+    /**
+     * Throw everything away and recount from the patient table
+     */
+    public void rebuild() {
+        commitFence.reload(this::load);
+    }
+
+    private void load() {
+        Buckets fresh = new Buckets();
+        for (Object[] row : patientRepository.countByRegistrationDay()) {
+            fresh.add((LocalDate) row[0], (Long) row[1]);
+        }
+        buckets = fresh;
+    }
+
+    // Same rule the trends endpoint always used: creation time first, then the registration date column
+    private static LocalDate registrationDay(Patient patient) {
+        if (patient.getCreatedAt() != null) {
+            return patient.getCreatedAt().toLocalDate();
+        }
+        return patient.getRegistrationDate();
+    }
+
+    // Runs inside the fence (after commit)
+    private void apply(LocalDate day, long delta) {
+        Buckets current = buckets;
+        if (current != null) {
+            current.add(day, delta);
+        }
+        // not built yet: the first read counts this change from the database
+    }
+
+    private Buckets loaded() {
+        Buckets current = buckets;
+        if (current == null) {
+            commitFence.reload(() -> {
+                if (buckets == null) {
+                    load();
+                }
+            });
+            current = buckets;
+        }
+        return current;
+    }
+
+    private static long sum(NavigableMap<LocalDate, LongAdder> days) {
+        long sum = 0;
+        for (LongAdder adder : days.values()) {
+            sum += adder.sum();
+        }
+        return sum;
+    }
+
+    private static final class Buckets {
+        private final LongAdder total = new LongAdder();
+        private final LongAdder undated = new LongAdder();
+        private final NavigableMap<LocalDate, LongAdder> byDay = new ConcurrentSkipListMap<>();
+
+        void add(LocalDate day, long delta) {
+            total.add(delta);
+            if (day == null) {
+                undated.add(delta);
+            } else {
+                byDay.computeIfAbsent(day, k -> new LongAdder()).add(delta);
+            }
+        }
+    }
+}
@@ -4,7 +4,10 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.examly.springapp.dto.KeysetPage;
+import com.examly.springapp.dto.PatientDto;
 import com.examly.springapp.model.Appointment;
 import com.examly.springapp.model.Patient;
 import com.examly.springapp.repository.AppointmentRepository;
@@ -22,14 +25,57 @@ public class PatientService {
     @Autowired
     private DoctorRepository doctorRepository;
 
+    @Autowired
+    private PatientRegistrationCounters registrationCounters;
+
+    @Autowired
+    private KeysetPaging keysetPaging;
+
+    private static final String PATIENTS_CURSOR = "patients";
+    private static final String DOCTOR_PATIENTS_CURSOR = "doctor-patients";
+
+    // The save and the counter delta share a transaction, so the delta is fenced against a counter reload
+    @Transactional
     public Patient createPatient(Patient patient) {
-        return patientRepository.save(patient);
+        Patient saved = patientRepository.save(patient);
+        registrationCounters.registered(saved);
+        return saved;
+    }
+
+    /**
+     * Register several patients with one batched insert
+     */
+    @Transactional
+    public List<Patient> createPatients(List<Patient> patients) {
+        List<Patient> saved = patientRepository.saveAll(patients);
+        saved.forEach(registrationCounters::registered);
+        return saved;
     }
 
     public List<Patient> getAllPatients() {
         return patientRepository.findAll();
     }
 
+    /**
+     * One page of all patients in id order, starting after the cursor (first page when null)
+     */
+    public KeysetPage<PatientDto> getPatientsPage(String cursor, Integer limit) {
+        int size = keysetPaging.size(limit);
+        List<PatientDto> fetched = patientRepository.findSummaryPageAfter(KeysetPaging.afterId(PATIENTS_CURSOR, cursor),
+                KeysetPaging.probe(size));
+        return KeysetPage.of(fetched, size, patient -> KeysetPaging.encode(PATIENTS_CURSOR, patient.id()));
+    }
+
+    /**
+     * One page of the patients who booked with a doctor, in id order
+     */
+    public KeysetPage<PatientDto> getPatientsOfDoctorPage(Long doctorId, String cursor, Integer limit) {
+        int size = keysetPaging.size(limit);
+        List<PatientDto> fetched = patientRepository.findSummaryPageByDoctorIdAfter(doctorId,
+                KeysetPaging.afterId(DOCTOR_PATIENTS_CURSOR, cursor), KeysetPaging.probe(size));
+        return KeysetPage.of(fetched, size, patient -> KeysetPaging.encode(DOCTOR_PATIENTS_CURSOR, patient.id()));
+    }
+
     public Patient getPatientById(Long id) {
         return patientRepository.findById(id).orElse(null);
     }
@@ -50,8 +96,12 @@ public class PatientService {
         return null;
     }
 
+    @Transactional
     public void deletePatient(Long id) {
-        patientRepository.deleteById(id);
+        patientRepository.findById(id).ifPresent(patient -> {
+            patientRepository.delete(patient);
+            registrationCounters.removed(patient);
+        });
     }
 
     public Long getPatientIdByEmail(String email) {
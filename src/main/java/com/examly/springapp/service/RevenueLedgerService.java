@@ -0,0 +1,75 @@
+package com.examly.springapp.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.examly.springapp.model.Appointment;
+import com.examly.springapp.model.RevenueLedgerEntry;
+import com.examly.springapp.repository.RevenueLedgerRepository;
+
+/**
+ * Writes and sums the revenue ledger. Completing an appointment appends a charge of the
+ * doctor's consultation fee at that moment; taking a completed appointment back (status
+ * change or delete) appends a reversal of whatever is still booked against it. Each line
+ * is added to the hourly rollup once it has committed.
+ */
+@Service
+@Transactional
+public class RevenueLedgerService {
+
+    // Charged when a doctor has no consultation fee on file
+    public static final double DEFAULT_CONSULTATION_FEE = 150.0;
+
+    @Autowired
+    private RevenueLedgerRepository revenueLedgerRepository;
+
+    @Autowired
+    private AppointmentHourlyRollup hourlyRollup;
+
+    @Autowired
+    private CommitFence commitFence;
+
+    public static double feeOf(Double consultationFee) {
+        return consultationFee != null ? consultationFee : DEFAULT_CONSULTATION_FEE;
+    }
+
+    public RevenueLedgerEntry recordCompletion(Appointment appointment) {
+        return append(appointment, RevenueLedgerEntry.Type.CHARGE, feeOf(appointment.getDoctor().getConsultationFee()));
+    }
+
+    /**
+     * Reverse the net amount still booked against the appointment; nothing if it is zero
+     */
+    public void recordReversal(Appointment appointment) {
+        double net = revenueLedgerRepository.netForAppointment(appointment.getId());
+        if (net == 0) {
+            return;
+        }
+        append(appointment, RevenueLedgerEntry.Type.REVERSAL, -net);
+    }
+
+    private RevenueLedgerEntry append(Appointment appointment, RevenueLedgerEntry.Type type, double amount) {
+        RevenueLedgerEntry entry = revenueLedgerRepository.save(RevenueLedgerEntry.builder()
+                .appointmentId(appointment.getId())
+                .doctorId(appointment.getDoctor().getId())
+                .serviceDate(appointment.getAppointmentDate())
+                .serviceTime(appointment.getAppointmentTime())
+                .entryType(type)
+                .amount(amount)
+                .recordedAt(LocalDateTime.now())
+                .build());
+        commitFence.afterCommit(() -> hourlyRollup.addRevenue(entry.getServiceDate(), entry.getServiceTime(),
+                entry.getDoctorId(), entry.getAmount()));
+        return entry;
+    }
+
+    // ------------------ REPORTS ------------------
+    @Transactional(readOnly = true)
+    public double revenueBetween(LocalDate from, LocalDate to) {
+        return revenueLedgerRepository.sumBetween(from, to);
+    }
+}
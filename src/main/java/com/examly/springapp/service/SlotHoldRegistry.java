@@ -0,0 +1,199 @@
+package com.examly.springapp.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived, in-memory reservations of a (doctor, date, time) slot for one patient.
+ * Holds never touch the database. Expiry runs on a hashed timing wheel: each hold is
+ * dropped into the bucket of its deadline tick (O(1) insert) and the ticker, run by
+ * Spring's task scheduler (which stops it on shutdown), only ever looks at the buckets
+ * for the ticks that have passed.
+ */
+@Component
+public class SlotHoldRegistry {
+
+    private static final long TICK_MILLIS = 100;
+    private static final int WHEEL_SIZE = 512; // power of two, ~51s per revolution
+
+    private final long ttlMillis;
+    private final long startNanos = System.nanoTime();
+
+    private final Map<SlotKey, SlotHold> holdsBySlot = new ConcurrentHashMap<>();
+    private final Map<String, SlotHold> holdsById = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    private final Queue<SlotHold>[] wheel = new Queue[WHEEL_SIZE];
+
+    private long lastTick = -1; // only touched by the ticker
+
+    public SlotHoldRegistry(@Value("${appointments.hold.ttl-seconds:120}") long ttlSeconds) {
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Hold a slot for a patient. A patient re-holding their own slot gets a fresh TTL.
+     * Throws IllegalStateException if another patient holds it.
+     */
+    public SlotHold hold(Long doctorId, LocalDate date, LocalTime time, Long patientId) {
+        SlotKey key = new SlotKey(doctorId, date, minuteOf(time));
+        long deadlineTick = currentTick() + Math.max(1, ttlMillis / TICK_MILLIS);
+        SlotHold hold = new SlotHold(UUID.randomUUID().toString(), doctorId, date, time, patientId,
+                LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMillis)), deadlineTick);
+
+        SlotHold winner = holdsBySlot.compute(key, (k, existing) -> {
+            if (existing != null && existing.isLive() && !existing.patientId().equals(patientId)) {
+                return existing;
+            }
+            if (existing != null) {
+                existing.release();
+                holdsById.remove(existing.holdId());
+            }
+            return hold;
+        });
+        if (winner != hold) {
+            throw new IllegalStateException("This time slot is currently held by another patient");
+        }
+
+        holdsById.put(hold.holdId(), hold);
+        wheel[(int) (deadlineTick & (WHEEL_SIZE - 1))].add(hold);
+        return hold;
+    }
+
+    /**
+     * True if someone other than this patient holds the slot right now
+     */
+    public boolean isHeldByOther(Long doctorId, LocalDate date, LocalTime time, Long patientId) {
+        SlotHold hold = holdsBySlot.get(new SlotKey(doctorId, date, minuteOf(time)));
+        return hold != null && hold.isLive() && !hold.patientId().equals(patientId);
+    }
+
+    /**
+     * Drop this patient's hold on a slot once it has been booked
+     */
+    public void consume(Long doctorId, LocalDate date, LocalTime time, Long patientId) {
+        SlotKey key = new SlotKey(doctorId, date, minuteOf(time));
+        SlotHold hold = holdsBySlot.get(key);
+        if (hold != null && hold.patientId().equals(patientId)) {
+            remove(key, hold);
+        }
+    }
+
+    public SlotHold getHold(String holdId) {
+        SlotHold hold = holdsById.get(holdId);
+        return (hold != null && hold.isLive()) ? hold : null;
+    }
+
+    /**
+     * Release a hold early. Returns false if it does not exist or has already expired.
+     */
+    public boolean release(String holdId) {
+        SlotHold hold = holdsById.get(holdId);
+        if (hold == null || !hold.isLive()) {
+            return false;
+        }
+        remove(new SlotKey(hold.doctorId(), hold.date(), minuteOf(hold.time())), hold);
+        return true;
+    }
+
+    public int activeHolds() {
+        return holdsById.size();
+    }
+
+    // Ticker: expire everything whose deadline is a tick that has passed since the last run.
+    // Scheduled runs of one method never overlap, so lastTick needs no lock.
+    @Scheduled(fixedRate = TICK_MILLIS, initialDelay = TICK_MILLIS)
+    void advance() {
+        try {
+            long now = currentTick();
+            for (long tick = lastTick + 1; tick <= now; tick++) {
+                Iterator<SlotHold> bucket = wheel[(int) (tick & (WHEEL_SIZE - 1))].iterator();
+                while (bucket.hasNext()) {
+                    SlotHold hold = bucket.next();
+                    if (hold.isReleased()) {
+                        bucket.remove();
+                    } else if (hold.deadlineTick() <= tick) {
+                        bucket.remove();
+                        remove(new SlotKey(hold.doctorId(), hold.date(), minuteOf(hold.time())), hold);
+                    }
+                    // otherwise the hold is due on a later revolution of the wheel
+                }
+            }
+            lastTick = now;
+        } catch (Exception e) {
+            System.err.println("Error expiring slot holds: " + e.getMessage());
+        }
+    }
+
+    private void remove(SlotKey key, SlotHold hold) {
+        hold.release();
+        holdsBySlot.remove(key, hold);
+        holdsById.remove(hold.holdId(), hold);
+    }
+
+    private long currentTick() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) / TICK_MILLIS;
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private record SlotKey(Long doctorId, LocalDate date, int minute) {}
+
+    /**
+     * A live reservation of one slot for one patient
+     */
+    public static final class SlotHold {
+        private final String holdId;
+        private final Long doctorId;
+        private final LocalDate date;
+        private final LocalTime time;
+        private final Long patientId;
+        private final LocalDateTime expiresAt;
+        private final long deadlineTick;
+        private volatile boolean released;
+
+        SlotHold(String holdId, Long doctorId, LocalDate date, LocalTime time, Long patientId,
+                 LocalDateTime expiresAt, long deadlineTick) {
+            this.holdId = holdId;
+            this.doctorId = doctorId;
+            this.date = date;
+            this.time = time;
+            this.patientId = patientId;
+            this.expiresAt = expiresAt;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public String holdId() { return holdId; }
+        public Long doctorId() { return doctorId; }
+        public LocalDate date() { return date; }
+        public LocalTime time() { return time; }
+        public Long patientId() { return patientId; }
+        public LocalDateTime expiresAt() { return expiresAt; }
+        long deadlineTick() { return deadlineTick; }
+
+        boolean isReleased() { return released; }
+        void release() { released = true; }
+
+        // The wheel expires holds within one tick; the timestamp check covers that gap
+        boolean isLive() {
+            return !released && LocalDateTime.now().isBefore(expiresAt);
+        }
+    }
+}
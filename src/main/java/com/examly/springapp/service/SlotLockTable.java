@@ -0,0 +1,77 @@
+package com.examly.springapp.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.model.Appointment;
+
+/**
+ * Fixed table of striped locks used to serialize bookings for the same doctor and date.
+ * Bookings for different doctor-days almost always land on different stripes, so they
+ * keep running in parallel; the unique slot constraint on the appointment table is
+ * still the final guard across application nodes.
+ */
+@Component
+public class SlotLockTable {
+
+    private static final int STRIPES = 256; // power of two, see stripeOf
+
+    private final Lock[] locks = new Lock[STRIPES];
+
+    public SlotLockTable() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Lock guarding every slot of the given doctor on the given date
+     */
+    public Lock lockFor(Long doctorId, LocalDate date) {
+        return locks[stripeOf(doctorId, date)];
+    }
+
+    /**
+     * Distinct locks covering every appointment's doctor and date, in stripe order.
+     * Callers taking several stripes must lock them in this order to avoid deadlocks.
+     */
+    public List<Lock> locksFor(Collection<Appointment> appointments) {
+        BitSet stripes = new BitSet(STRIPES);
+        for (Appointment appointment : appointments) {
+            stripes.set(stripeOf(appointment.getDoctor().getId(), appointment.getAppointmentDate()));
+        }
+        return ordered(stripes);
+    }
+
+    /**
+     * Same as above for one doctor on several dates
+     */
+    public List<Lock> locksFor(Long doctorId, Collection<LocalDate> dates) {
+        BitSet stripes = new BitSet(STRIPES);
+        for (LocalDate date : dates) {
+            stripes.set(stripeOf(doctorId, date));
+        }
+        return ordered(stripes);
+    }
+
+    private List<Lock> ordered(BitSet stripes) {
+        List<Lock> ordered = new ArrayList<>(stripes.cardinality());
+        for (int i = stripes.nextSetBit(0); i >= 0; i = stripes.nextSetBit(i + 1)) {
+            ordered.add(locks[i]);
+        }
+        return ordered;
+    }
+
+    private static int stripeOf(Long doctorId, LocalDate date) {
+        int hash = 31 * Long.hashCode(doctorId) + Long.hashCode(date.toEpochDay());
+        hash ^= (hash >>> 16);
+        return hash & (STRIPES - 1);
+    }
+}
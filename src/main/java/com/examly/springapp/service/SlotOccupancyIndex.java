@@ -0,0 +1,221 @@
+package com.examly.springapp.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.repository.AppointmentRepository;
+
+/**
+ * In-memory index of booked slots, one minute-of-day bitmap per doctor and date.
+ * A doctor-day is loaded from the database the first time it is asked about and
+ * is then kept current by AppointmentService, so a free slot is answered without MySQL.
+ *
+ * The index is per node: cancellations on another node, or a release that raced the
+ * load of its doctor-day, can leave a slot marked booked here. A booked bit is therefore
+ * never trusted on its own; before a slot is reported taken its doctor-day is re-read
+ * from the database, and every doctor-day is re-read once it is older than the TTL.
+ * A free bit may be stale too, which uk_appointment_active_slot catches at insert time.
+ *
+ * Reservations of bookings that have not committed yet are kept apart from the booked
+ * bits, so re-reading a doctor-day does not drop them.
+ */
+@Component
+public class SlotOccupancyIndex {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int WORDS_PER_DAY = (MINUTES_PER_DAY + 63) / 64;
+
+    // Past doctor-days are dropped once the index grows beyond this many entries
+    private static final int PRUNE_THRESHOLD = 50_000;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Value("${appointments.occupancy.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final Map<DoctorDay, Day> days = new ConcurrentHashMap<>();
+
+    /**
+     * Check whether the doctor already has an active appointment at this time
+     */
+    public boolean isOccupied(Long doctorId, LocalDate date, LocalTime time) {
+        DoctorDay key = new DoctorDay(doctorId, date);
+        Day day = load(key);
+        int minute = minuteOf(time);
+        if (!day.isTaken(minute)) {
+            return false;
+        }
+        if (!day.isReserved(minute)) {
+            reload(key, day);
+        }
+        return day.isTaken(minute);
+    }
+
+    /**
+     * Reserve a slot for a booking in the current transaction. The reservation becomes a
+     * booking when the transaction commits and is dropped if it rolls back.
+     * Returns false if the slot is already taken.
+     */
+    public boolean occupy(Long doctorId, LocalDate date, LocalTime time) {
+        DoctorDay key = new DoctorDay(doctorId, date);
+        return reserve(key, load(key), minuteOf(time));
+    }
+
+    /**
+     * Like occupy, but leaves doctor-days that are not loaded alone (the caller has
+     * already checked the database). Returns false if the slot was already taken.
+     */
+    public boolean occupyIfLoaded(Long doctorId, LocalDate date, LocalTime time) {
+        DoctorDay key = new DoctorDay(doctorId, date);
+        Day day = days.get(key);
+        return day == null || reserve(key, day, minuteOf(time));
+    }
+
+    /**
+     * Record a booking that has already committed (moved appointments, status changes back to an active one)
+     */
+    public void markBooked(Long doctorId, LocalDate date, LocalTime time) {
+        Day day = days.get(new DoctorDay(doctorId, date));
+        if (day != null) {
+            day.book(minuteOf(time));
+        }
+    }
+
+    /**
+     * Mark a slot as free again (cancelled, rejected or deleted appointment, or an
+     * unused reservation)
+     */
+    public void release(Long doctorId, LocalDate date, LocalTime time) {
+        Day day = days.get(new DoctorDay(doctorId, date));
+        if (day == null) {
+            return; // not loaded yet, the next load reads the current state from the database
+        }
+        day.free(minuteOf(time));
+    }
+
+    /**
+     * Drop every cached doctor-day so the next check reloads from the database
+     */
+    public void clear() {
+        days.clear();
+    }
+
+    private boolean reserve(DoctorDay key, Day day, int minute) {
+        if (day.isReserved(minute)) {
+            return false; // a booking on this node that has not committed yet
+        }
+        if (day.isTaken(minute)) {
+            reload(key, day);
+        }
+        if (!day.tryReserve(minute)) {
+            return false;
+        }
+        TransactionHooks.afterCommit(() -> day.confirm(minute));
+        TransactionHooks.afterRollback(() -> day.cancel(minute));
+        return true;
+    }
+
+    private Day load(DoctorDay key) {
+        Day day = days.get(key);
+        if (day != null) {
+            if (day.loadedBefore(System.nanoTime() - TimeUnit.SECONDS.toNanos(ttlSeconds))) {
+                reload(key, day);
+            }
+            return day;
+        }
+        if (days.size() > PRUNE_THRESHOLD) {
+            LocalDate today = LocalDate.now();
+            days.keySet().removeIf(d -> d.date().isBefore(today));
+        }
+        return days.computeIfAbsent(key, k -> {
+            Day loaded = new Day();
+            loaded.replaceBooked(readBooked(k));
+            return loaded;
+        });
+    }
+
+    private void reload(DoctorDay key, Day day) {
+        day.replaceBooked(readBooked(key));
+    }
+
+    private long[] readBooked(DoctorDay key) {
+        long[] booked = new long[WORDS_PER_DAY];
+        List<LocalTime> times = appointmentRepository.findOccupiedTimes(key.doctorId(), key.date());
+        for (LocalTime time : times) {
+            int minute = minuteOf(time);
+            booked[minute >>> 6] |= 1L << minute;
+        }
+        return booked;
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private record DoctorDay(Long doctorId, LocalDate date) {}
+
+    // Committed bookings as last read from the database plus changes since, and this node's open reservations
+    private static final class Day {
+        private final long[] booked = new long[WORDS_PER_DAY];
+        private final long[] reserved = new long[WORDS_PER_DAY];
+        private long loadedAt;
+
+        synchronized boolean isTaken(int minute) {
+            return ((booked[minute >>> 6] | reserved[minute >>> 6]) & (1L << minute)) != 0;
+        }
+
+        synchronized boolean isReserved(int minute) {
+            return (reserved[minute >>> 6] & (1L << minute)) != 0;
+        }
+
+        synchronized boolean tryReserve(int minute) {
+            long mask = 1L << minute;
+            if (((booked[minute >>> 6] | reserved[minute >>> 6]) & mask) != 0) {
+                return false;
+            }
+            reserved[minute >>> 6] |= mask;
+            return true;
+        }
+
+        // Only a reservation that is still open becomes a booking; release() may have dropped it already
+        synchronized void confirm(int minute) {
+            long mask = 1L << minute;
+            if ((reserved[minute >>> 6] & mask) != 0) {
+                reserved[minute >>> 6] &= ~mask;
+                booked[minute >>> 6] |= mask;
+            }
+        }
+
+        synchronized void cancel(int minute) {
+            reserved[minute >>> 6] &= ~(1L << minute);
+        }
+
+        synchronized void book(int minute) {
+            booked[minute >>> 6] |= 1L << minute;
+        }
+
+        synchronized void free(int minute) {
+            long mask = ~(1L << minute);
+            booked[minute >>> 6] &= mask;
+            reserved[minute >>> 6] &= mask;
+        }
+
+        synchronized void replaceBooked(long[] fresh) {
+            System.arraycopy(fresh, 0, booked, 0, WORDS_PER_DAY);
+            loadedAt = System.nanoTime();
+        }
+
+        synchronized boolean loadedBefore(long nanos) {
+            return loadedAt - nanos < 0;
+        }
+    }
+}
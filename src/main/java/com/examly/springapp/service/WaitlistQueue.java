@@ -0,0 +1,111 @@
+package com.examly.springapp.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.model.WaitlistEntry;
+import com.examly.springapp.repository.WaitlistRepository;
+
+/**
+ * Waiting patients per doctor and date, kept sorted by priority (highest first), then
+ * join time. A doctor-day is loaded from the database the first time a slot is freed on
+ * it and then kept current by WaitlistService after each commit.
+ * The queue is registered before it is read and the read runs under its lock, so a change
+ * that commits during the read waits for it and is applied on top.
+ */
+@Component
+public class WaitlistQueue {
+
+    private static final Comparator<Waiter> ORDER = Comparator
+            .comparingInt(Waiter::priority).reversed()
+            .thenComparing(Waiter::createdAt)
+            .thenComparingLong(Waiter::entryId);
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    private final Map<DoctorDay, DayQueue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Waiting patients in the order they should be offered a freed slot
+     */
+    public List<Waiter> candidates(Long doctorId, LocalDate date) {
+        DoctorDay key = new DoctorDay(doctorId, date);
+        DayQueue queue = queues.computeIfAbsent(key, k -> new DayQueue());
+        synchronized (queue) {
+            if (queue.waiters == null) {
+                queue.waiters = load(key);
+            }
+            return new ArrayList<>(queue.waiters);
+        }
+    }
+
+    public void add(WaitlistEntry entry) {
+        DayQueue queue = queues.get(new DoctorDay(entry.getDoctor().getId(), entry.getAppointmentDate()));
+        if (queue == null) {
+            return; // not loaded yet, the first load reads the entry from the database
+        }
+        synchronized (queue) {
+            if (queue.waiters != null) {
+                queue.waiters.add(Waiter.of(entry));
+            }
+        }
+    }
+
+    public void remove(Long doctorId, LocalDate date, Long entryId) {
+        DayQueue queue = queues.get(new DoctorDay(doctorId, date));
+        if (queue == null) {
+            return;
+        }
+        synchronized (queue) {
+            if (queue.waiters == null) {
+                return;
+            }
+            queue.waiters.removeIf(waiter -> waiter.entryId() == entryId);
+            if (queue.waiters.isEmpty() && date.isBefore(LocalDate.now())) {
+                queues.remove(new DoctorDay(doctorId, date));
+            }
+        }
+    }
+
+    public void clear() {
+        queues.clear();
+    }
+
+    private NavigableSet<Waiter> load(DoctorDay key) {
+        NavigableSet<Waiter> queue = new TreeSet<>(ORDER);
+        for (WaitlistEntry entry : waitlistRepository.findWaiting(key.doctorId(), key.date())) {
+            queue.add(Waiter.of(entry));
+        }
+        return queue;
+    }
+
+    /**
+     * A waiting patient; minute is -1 when any slot of the day will do
+     */
+    public record Waiter(long entryId, Long patientId, int minute, int priority, LocalDateTime createdAt) {
+        static Waiter of(WaitlistEntry entry) {
+            int minute = entry.getAppointmentTime() == null ? -1
+                    : entry.getAppointmentTime().getHour() * 60 + entry.getAppointmentTime().getMinute();
+            return new Waiter(entry.getId(), entry.getPatient().getId(), minute,
+                    entry.getPriority() == null ? 0 : entry.getPriority(), entry.getCreatedAt());
+        }
+    }
+
+    private record DoctorDay(Long doctorId, LocalDate date) {}
+
+    // Waiters of one doctor-day; null until they have been read from the database
+    private static final class DayQueue {
+        private NavigableSet<Waiter> waiters;
+    }
+}
@@ -0,0 +1,172 @@
+package com.examly.springapp.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.examly.springapp.model.Appointment;
+import com.examly.springapp.model.AppointmentStatus;
+import com.examly.springapp.model.Doctor;
+import com.examly.springapp.model.Patient;
+import com.examly.springapp.model.WaitlistEntry;
+import com.examly.springapp.repository.AppointmentRepository;
+import com.examly.springapp.repository.DoctorRepository;
+import com.examly.springapp.repository.PatientRepository;
+import com.examly.springapp.repository.WaitlistRepository;
+
+@Service
+@Transactional
+public class WaitlistService {
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+
+    @Autowired
+    private WaitlistQueue waitlistQueue;
+
+    @Autowired
+    private AppointmentCounters appointmentCounters;
+
+    @Autowired
+    private AppointmentColumnStore appointmentColumnStore;
+
+    @Autowired
+    private DashboardEventHub dashboardEvents;
+
+    // ------------------ JOIN / LEAVE ------------------
+    public WaitlistEntry join(Long patientId, Long doctorId, LocalDate date, LocalTime time, String reason, int priority) {
+        if (patientId == null || doctorId == null || date == null || reason == null || reason.trim().isEmpty()) {
+            throw new IllegalArgumentException("Patient, doctor, date and reason are required to join the waitlist");
+        }
+
+        if (date.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Cannot join the waitlist for past dates");
+        }
+
+        Patient patient = patientRepository.findById(patientId)
+                .orElseThrow(() -> new IllegalArgumentException("Patient not found with ID: " + patientId));
+
+        Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new IllegalArgumentException("Doctor not found with ID: " + doctorId));
+
+        if (time != null && !slotOccupancyIndex.isOccupied(doctorId, date, time)) {
+            throw new IllegalStateException("This time slot is free, book it directly");
+        }
+
+        if (waitlistRepository.isWaiting(patientId, doctorId, date, time)) {
+            throw new IllegalStateException("You are already on the waitlist for this slot");
+        }
+
+        WaitlistEntry entry = WaitlistEntry.builder()
+                .patient(patient)
+                .doctor(doctor)
+                .appointmentDate(date)
+                .appointmentTime(time)
+                .reason(reason.trim())
+                .priority(priority)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        WaitlistEntry saved = waitlistRepository.save(entry);
+        TransactionHooks.afterCommit(() -> waitlistQueue.add(saved));
+        return saved;
+    }
+
+    public boolean leave(Long entryId, Long patientId, boolean isAdmin) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId).orElse(null);
+        if (entry == null || entry.getStatus() != WaitlistEntry.Status.WAITING) {
+            return false;
+        }
+        if (!isAdmin && !entry.getPatient().getId().equals(patientId)) {
+            throw new IllegalStateException("You can only leave your own waitlist entries");
+        }
+
+        entry.setStatus(WaitlistEntry.Status.LEFT);
+        waitlistRepository.save(entry);
+        removeAfterCommit(entry);
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistEntry> getWaitingEntries(Long patientId) {
+        return waitlistRepository.findWaitingByPatient(patientId);
+    }
+
+    // ------------------ PROMOTION ------------------
+    /**
+     * Give a freed slot to the first eligible waiting patient, in the caller's transaction.
+     * Returns the new appointment, or empty if nobody on the waitlist can take the slot.
+     */
+    public Optional<Appointment> promoteInto(Doctor doctor, LocalDate date, LocalTime time) {
+        LocalDate today = LocalDate.now();
+        if (date.isBefore(today) || (date.equals(today) && time.isBefore(LocalTime.now()))) {
+            return Optional.empty();
+        }
+
+        int minute = time.getHour() * 60 + time.getMinute();
+        for (WaitlistQueue.Waiter waiter : waitlistQueue.candidates(doctor.getId(), date)) {
+            if (waiter.minute() >= 0 && waiter.minute() != minute) {
+                continue;
+            }
+
+            WaitlistEntry entry = waitlistRepository.findById(waiter.entryId()).orElse(null);
+            if (entry == null || entry.getStatus() != WaitlistEntry.Status.WAITING) {
+                TransactionHooks.afterCommit(() -> waitlistQueue.remove(doctor.getId(), date, waiter.entryId()));
+                continue; // stale queue entry
+            }
+            if (appointmentRepository.existsActiveForPatient(waiter.patientId(), doctor.getId(), date)) {
+                continue; // already has an appointment with this doctor that day
+            }
+
+            // The update or delete that freed the slot has to reach the database before the new row
+            appointmentRepository.flush();
+
+            Appointment appointment = Appointment.builder()
+                    .patient(entry.getPatient())
+                    .doctor(doctor)
+                    .appointmentDate(date)
+                    .appointmentTime(time)
+                    .reason(entry.getReason())
+                    .status(AppointmentStatus.SCHEDULED)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            Appointment saved = appointmentRepository.saveAndFlush(appointment);
+            appointmentCounters.created(saved);
+            appointmentColumnStore.created(saved);
+            dashboardEvents.booked(saved);
+
+            entry.setStatus(WaitlistEntry.Status.PROMOTED);
+            entry.setAppointmentId(saved.getId());
+            entry.setPromotedAt(LocalDateTime.now());
+            waitlistRepository.save(entry);
+            removeAfterCommit(entry);
+            return Optional.of(saved);
+        }
+        return Optional.empty();
+    }
+
+    private void removeAfterCommit(WaitlistEntry entry) {
+        Long doctorId = entry.getDoctor().getId();
+        LocalDate date = entry.getAppointmentDate();
+        Long entryId = entry.getId();
+        TransactionHooks.afterCommit(() -> waitlistQueue.remove(doctorId, date, entryId));
+    }
+}
@@ -0,0 +1,111 @@
+-- Schema as the entities map it. IF NOT EXISTS so databases that were created by
+-- ddl-auto=update before migrations existed keep their tables; V2 and later bring
+-- those up to date. Secondary indexes are created in V4.
+
+CREATE TABLE IF NOT EXISTS admin (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    name         VARCHAR(255),
+    email        VARCHAR(255),
+    phone_number VARCHAR(255),
+    password     VARCHAR(255),
+    role         VARCHAR(16)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS doctor (
+    id               BIGINT       NOT NULL AUTO_INCREMENT,
+    name             VARCHAR(255),
+    specialization   VARCHAR(255),
+    clinic_name      VARCHAR(255),
+    email            VARCHAR(255),
+    phone_number     VARCHAR(255),
+    address          VARCHAR(255),
+    bio              VARCHAR(500),
+    experience_years INT,
+    qualifications   VARCHAR(300),
+    consultation_fee DOUBLE,
+    password         VARCHAR(255),
+    role             VARCHAR(16)  NOT NULL,
+    status           VARCHAR(16)  NOT NULL,
+    user_id          BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS patient (
+    id                BIGINT       NOT NULL AUTO_INCREMENT,
+    name              VARCHAR(255),
+    email             VARCHAR(255),
+    phone_number      VARCHAR(255),
+    date_of_birth     DATE,
+    password          VARCHAR(255),
+    role              VARCHAR(16)  NOT NULL,
+    created_at        DATETIME(6),
+    registration_date DATE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS appointment (
+    id               BIGINT       NOT NULL AUTO_INCREMENT,
+    patient_id       BIGINT       NOT NULL,
+    doctor_id        BIGINT       NOT NULL,
+    appointment_date DATE,
+    appointment_time TIME,
+    reason           VARCHAR(255),
+    status           VARCHAR(16),
+    created_at       DATETIME(6),
+    series_id        VARCHAR(36),
+    -- TRUE while the appointment holds its slot, NULL otherwise, so the unique key only covers live bookings
+    slot_active      BOOLEAN,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_appointment_active_slot UNIQUE (doctor_id, appointment_date, appointment_time, slot_active),
+    CONSTRAINT fk_appointment_patient FOREIGN KEY (patient_id) REFERENCES patient (id),
+    CONSTRAINT fk_appointment_doctor FOREIGN KEY (doctor_id) REFERENCES doctor (id)
+);
+
+CREATE TABLE IF NOT EXISTS availability (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    doctor_id   BIGINT       NOT NULL,
+    day_of_week VARCHAR(255) NOT NULL,
+    slot_mask   VARBINARY(184),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_availability_doctor FOREIGN KEY (doctor_id) REFERENCES doctor (id)
+);
+
+CREATE TABLE IF NOT EXISTS doctor_availability (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    doctor_id   BIGINT       NOT NULL,
+    day_of_week VARCHAR(255) NOT NULL,
+    slot_mask   VARBINARY(184),
+    is_active   BOOLEAN      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_doctor_availability_doctor FOREIGN KEY (doctor_id) REFERENCES doctor (id)
+);
+
+CREATE TABLE IF NOT EXISTS appointment_waitlist (
+    id               BIGINT       NOT NULL AUTO_INCREMENT,
+    patient_id       BIGINT       NOT NULL,
+    doctor_id        BIGINT       NOT NULL,
+    appointment_date DATE         NOT NULL,
+    appointment_time TIME,
+    reason           VARCHAR(255),
+    priority         INT,
+    status           VARCHAR(16)  NOT NULL,
+    created_at       DATETIME(6),
+    appointment_id   BIGINT,
+    promoted_at      DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_waitlist_patient FOREIGN KEY (patient_id) REFERENCES patient (id),
+    CONSTRAINT fk_waitlist_doctor FOREIGN KEY (doctor_id) REFERENCES doctor (id)
+);
+
+CREATE TABLE IF NOT EXISTS revenue_ledger (
+    id             BIGINT      NOT NULL AUTO_INCREMENT,
+    appointment_id BIGINT      NOT NULL,
+    doctor_id      BIGINT      NOT NULL,
+    service_date   DATE        NOT NULL,
+    service_time   TIME,
+    entry_type     VARCHAR(16) NOT NULL,
+    amount         DOUBLE      NOT NULL,
+    recorded_at    DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,10 @@
+-- Charge every completed appointment that has no ledger line yet, at its doctor's current
+-- consultation fee (150 when none is on file, see RevenueLedgerService.DEFAULT_CONSULTATION_FEE).
+-- Appointments with any line, including a charge that was later reversed, are left alone.
+INSERT INTO revenue_ledger (appointment_id, doctor_id, service_date, service_time, entry_type, amount, recorded_at)
+SELECT a.id, a.doctor_id, a.appointment_date, a.appointment_time, 'CHARGE',
+       COALESCE(d.consultation_fee, 150), CURRENT_TIMESTAMP
+FROM appointment a
+JOIN doctor d ON d.id = a.doctor_id
+WHERE a.status = 'COMPLETED' AND a.appointment_date IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM revenue_ledger l WHERE l.appointment_id = a.id);
@@ -418,7 +418,7 @@
 
 import React, { useState, useEffect } from 'react';
 import { LineChart, Line, XAxis, YAxis, CartesianGrid, Tooltip, ResponsiveContainer, BarChart, Bar, PieChart, Pie, Cell } from 'recharts';
-import api from "../utils/api";
+import api, { getAllPages } from "../utils/api";
 import { useUser } from "../App";
 
 const AdminDashboard = () => {
@@ -475,15 +475,15 @@ const AdminDashboard = () => {
           console.error('Stats API failed:', err.response?.status, err.response?.data || err.message);
           return { data: null };
         }),
-        api.get('/api/appointments').catch(err => {
+        getAllPages('/api/appointments').catch(err => {
           console.error('Appointments API failed:', err.response?.status, err.response?.data || err.message);
           return { data: [] };
         }),
-        api.get('/api/patients').catch(err => {
+        getAllPages('/api/patients').catch(err => {
           console.error('Patients API failed:', err.response?.status, err.response?.data || err.message);
           return { data: [] };
         }),
-        api.get('/api/doctors').catch(err => {
+        getAllPages('/api/doctors').catch(err => {
           console.error('Doctors API failed:', err.response?.status, err.response?.data || err.message);
           return { data: [] };
         }),
@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from "react";
 import { useUser } from "../App";
-import api from "../utils/api";
+import api, { getAllPages } from "../utils/api";
 
 export default function Appointments() {
   const { user } = useUser();
@@ -42,7 +42,8 @@ export default function Appointments() {
       endpoint = "/api/appointments";
     }
 
-    const response = await api.get(endpoint);
+    // The doctor and admin lists are paginated, the patient's own list is not
+    const response = user?.role === "PATIENT" ? await api.get(endpoint) : await getAllPages(endpoint);
     setAppointments(response.data || []);
     setError("");
   } catch (err) {
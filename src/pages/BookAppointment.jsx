@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from "react";
 import { useUser } from "../App";
-import api from "../utils/api";
+import api, { getAllPages } from "../utils/api";
 
 const BookAppointment = () => {
   const { user } = useUser();
@@ -26,11 +26,11 @@ const BookAppointment = () => {
           patientsData = [user];
           setForm(prev => ({ ...prev, patientId: user.id }));
         } else if (user?.role === "ADMIN") {
-          const patientsRes = await api.get("/api/patients");
+          const patientsRes = await getAllPages("/api/patients");
           patientsData = patientsRes.data || [];
         }
 
-        const doctorsRes = await api.get("/api/doctors");
+        const doctorsRes = await getAllPages("/api/doctors");
         doctorsData = doctorsRes.data || [];
 
         setPatients(patientsData);
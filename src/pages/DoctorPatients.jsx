@@ -1,5 +1,5 @@
 import React, { useEffect, useState } from "react";
-import api from "../utils/api";
+import { getAllPages } from "../utils/api";
 
 const Card = ({ children }) => (
   <div
@@ -28,12 +28,11 @@ export default function DoctorPatients() {
 
   const loadPatients = async () => {
     try {
-      const response = await api.get("/api/patients/my");
+      const response = await getAllPages("/api/patients/my");
 
       console.log("Patients API response:", response.data);
 
-      const data = response.data;
-      setPatients(Array.isArray(data) ? data : [data]);
+      setPatients(response.data);
 
     } catch (error) {
       console.error("Error fetching patients", error);
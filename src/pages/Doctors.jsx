@@ -1,6 +1,6 @@
 
 import React, { useState, useEffect } from "react";
-import api from "../utils/api"; // Import your existing API utility
+import { getAllPages } from "../utils/api"; // Import your existing API utility
 import { useUser } from "../App"; // Import your existing useUser hook
 
 export default function DoctorSearch() {
@@ -27,7 +27,7 @@ export default function DoctorSearch() {
   const loadDoctors = async () => {
     try {
       setLoading(true);
-      const response = await api.get("/api/doctors");
+      const response = await getAllPages("/api/doctors");
       const activeDoctors = response.data.filter(doctor => 
         doctor.status === 'ACTIVE' || !doctor.status
       );
@@ -1,5 +1,5 @@
 import React, { useEffect, useState } from "react";
-import api from "../utils/api";
+import { getAllPages } from "../utils/api";
 
 export default function Patients() {
   const [list, setList] = useState([]);
@@ -12,7 +12,7 @@ export default function Patients() {
       setError("");
       
       console.log("Loading patients...");
-      const res = await api.get("/api/patients");
+      const res = await getAllPages("/api/patients");
       console.log("Patients loaded:", res.data);
       
       setList(res.data || []);
@@ -60,6 +60,6 @@ public class DoctorControllerTest {
         ));
         mockMvc.perform(get("/api/doctors"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()", greaterThanOrEqualTo(2)));
+                .andExpect(jsonPath("$.items.length()", greaterThanOrEqualTo(2)));
     }
 }
@@ -77,6 +77,6 @@ public class PatientControllerTest {
     void testGetAllPatients() throws Exception {
         mockMvc.perform(get("/api/patients"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray());
+                .andExpect(jsonPath("$.items").isArray());
     }
 }
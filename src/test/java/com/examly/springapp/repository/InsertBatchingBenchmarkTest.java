@@ -0,0 +1,122 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.model.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput of 10k-row inserts with pooled table-generated ids and JDBC batching, against the
+ * same inserts sent one statement per row, which is all IDENTITY ids allowed.
+ * Tagged "benchmark" so builds can leave it out of the regular test run.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+public class InsertBatchingBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(InsertBatchingBenchmarkTest.class);
+    private static final int ROWS = 10_000;
+    private static final int WARM_UP_ROWS = 1_000;
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private DoctorAvailabilityRepository doctorAvailabilityRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Doctor doctor;
+
+    @BeforeEach
+    void setup() {
+        waitlistRepository.deleteAll();
+        appointmentRepository.deleteAll();
+        doctorAvailabilityRepository.deleteAll();
+        availabilityRepository.deleteAllInBatch();
+        doctorRepository.deleteAll();
+        doctor = doctorRepository.save(Doctor.builder().name("Dr. Batch").specialization("Cardiology")
+                .email("batch@hospital.com").phoneNumber("9876543210").build());
+    }
+
+    @Test
+    void testBatchedInsertsOutrunRowByRowInserts() {
+        insert(WARM_UP_ROWS, 1);
+        insert(WARM_UP_ROWS, null);
+
+        Run rowByRow = insert(ROWS, 1);
+        Run batched = insert(ROWS, null);
+
+        log.info("{} availability rows: row by row {} ms ({} rows/s, {} statements), batched {} ms ({} rows/s, {} statements)",
+                ROWS, rowByRow.millis(), Math.round(rowByRow.rowsPerSecond()), rowByRow.statements(),
+                batched.millis(), Math.round(batched.rowsPerSecond()), batched.statements());
+        assertTrue(rowByRow.statements() >= ROWS, "row-by-row run prepared " + rowByRow.statements() + " statements");
+        assertTrue(batched.statements() * 10 < rowByRow.statements(),
+                "batched run prepared " + batched.statements() + " statements");
+    }
+
+    @Test
+    void testPooledIdsAreUniqueAcrossBlocks() {
+        List<Availability> saved = availabilityRepository.saveAll(rows(ROWS / 10));
+
+        assertEquals(ROWS / 10, new HashSet<>(saved.stream().map(Availability::getId).toList()).size());
+        assertEquals(ROWS / 10, availabilityRepository.count());
+    }
+
+    private record Run(int rows, long millis, long statements) {
+        double rowsPerSecond() {
+            return rows * 1000.0 / Math.max(millis, 1);
+        }
+    }
+
+    // Inserts the rows in one transaction; a batch size of 1 sends each INSERT on its own
+    private Run insert(int count, Integer batchSize) {
+        List<Availability> rows = rows(count);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            availabilityRepository.saveAll(rows);
+        });
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long statements = statistics.getPrepareStatementCount();
+        availabilityRepository.deleteAllInBatch();
+        return new Run(count, millis, statements);
+    }
+
+    private List<Availability> rows(int count) {
+        String[] days = { "MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY", "SUNDAY" };
+        List<Availability> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Availability(doctor, days[i % days.length], List.of("09:00", "09:30", "10:00")));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,196 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the repository queries called below on the migrated H2 test schema, EXPLAINs every
+ * statement each one issued and fails if H2 plans a full scan of a table the query filters on.
+ * This guards the indexes the migrations create against being dropped or not matching a
+ * predicate; it says nothing about MySQL's own plans, which also weigh the bound values
+ * (here every parameter is bound to NULL) and table statistics.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class RepositoryIndexUsageTest {
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private DoctorAvailabilityRepository availabilityRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<String> failures = new ArrayList<>();
+    private Patient patient;
+    private Doctor doctor;
+    private final LocalDate day = LocalDate.now().plusDays(1);
+    private final LocalTime time = LocalTime.of(9, 0);
+
+    @BeforeEach
+    void setup() {
+        waitlistRepository.deleteAll();
+        appointmentRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patientRepository.deleteAll();
+        patient = patientRepository.save(Patient.builder().name("Plan Patient").email("plan@example.com")
+                .phoneNumber("1234567890").dateOfBirth(LocalDate.of(1990, 1, 1)).build());
+        for (int i = 0; i < 20; i++) {
+            Doctor saved = doctorRepository.save(Doctor.builder().name("Dr. Plan " + i).specialization(i % 2 == 0 ? "Cardiology" : "Neurology")
+                    .clinicName("City Clinic").email("plan" + i + "@hospital.com").phoneNumber("9876543210").userId(100L + i).build());
+            availabilityRepository.save(DoctorAvailability.builder().doctor(saved).dayOfWeek("MONDAY")
+                    .slotMask(SlotMask.of(List.of("09:00", "09:30"))).build());
+            for (int n = 0; n < 10; n++) {
+                appointmentRepository.save(Appointment.builder().patient(patient).doctor(saved)
+                        .appointmentDate(day.plusDays(n)).appointmentTime(time).reason("Check-up")
+                        .status(n % 3 == 0 ? AppointmentStatus.COMPLETED : AppointmentStatus.SCHEDULED).build());
+            }
+            doctor = saved;
+        }
+    }
+
+    @Test
+    void testAppointmentRepositoryQueriesUseIndexes() {
+        check("existsByDoctorAndAppointmentDateAndAppointmentTime",
+                () -> appointmentRepository.existsByDoctorAndAppointmentDateAndAppointmentTime(doctor, day, time), "appointment");
+        check("findOccupiedTimes", () -> appointmentRepository.findOccupiedTimes(doctor.getId(), day), "appointment");
+        check("findOpenSeriesOccurrences", () -> appointmentRepository.findOpenSeriesOccurrences("series", day), "appointment");
+        check("cancelAll", () -> inRolledBackTransaction(() -> appointmentRepository.cancelAll(List.of(-1L))), "appointment");
+        check("releaseSlots", () -> inRolledBackTransaction(() -> appointmentRepository.releaseSlots(List.of(-1L))), "appointment");
+        check("countDoctorsWithAppointmentsSince", () -> appointmentRepository.countDoctorsWithAppointmentsSince(day.plusDays(8)), "appointment");
+        check("existsActiveForPatient",
+                () -> appointmentRepository.existsActiveForPatient(patient.getId(), doctor.getId(), day), "appointment");
+        check("findOccupiedSlotsForDoctor",
+                () -> appointmentRepository.findOccupiedSlotsForDoctor(doctor.getId(), day, day.plusDays(3)), "appointment");
+        check("findOccupiedSlotsForDoctors",
+                () -> appointmentRepository.findOccupiedSlotsForDoctors(List.of(doctor.getId()), day, day.plusDays(3)), "appointment");
+        check("findOccupiedSlotsForSearch",
+                () -> appointmentRepository.findOccupiedSlotsForSearch("Cardio", null, day, day.plusDays(3)), "appointment");
+        check("findByPatient", () -> appointmentRepository.findByPatient(patient), "appointment");
+        check("findByDoctor", () -> appointmentRepository.findByDoctor(doctor), "appointment");
+        check("findSummaryPageAfter",
+                () -> appointmentRepository.findSummaryPageAfter(day.plusDays(8), time, 0L, PageRequest.of(0, 10)), "appointment");
+        check("findSummaryPageByDoctor",
+                () -> appointmentRepository.findSummaryPageByDoctor(doctor.getId(), PageRequest.of(0, 10)), "appointment");
+        check("findSummaryPageByDoctorAfter",
+                () -> appointmentRepository.findSummaryPageByDoctorAfter(doctor.getId(), day, time, 0L, PageRequest.of(0, 10)), "appointment");
+        check("findByAppointmentDateBetween",
+                () -> appointmentRepository.findByAppointmentDateBetween(day, day.plusDays(1)), "appointment");
+        check("findByPatientAndStatus",
+                () -> appointmentRepository.findByPatientAndStatus(patient, AppointmentStatus.CONFIRMED), "appointment");
+        check("findByDoctorAndStatus",
+                () -> appointmentRepository.findByDoctorAndStatus(doctor, AppointmentStatus.CONFIRMED), "appointment");
+        check("findByStatus", () -> appointmentRepository.findByStatus(AppointmentStatus.CONFIRMED), "appointment");
+        check("findByDoctorAndAppointmentDateGreaterThanEqual",
+                () -> appointmentRepository.findByDoctorAndAppointmentDateGreaterThanEqual(doctor, day.plusDays(8)), "appointment");
+        check("findByPatientAndAppointmentDateGreaterThanEqual",
+                () -> appointmentRepository.findByPatientAndAppointmentDateGreaterThanEqual(patient, day.plusDays(8)), "appointment");
+
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+
+    @Test
+    void testDoctorRepositoryQueriesUseIndexes() {
+        check("findByEmail", () -> doctorRepository.findByEmail(doctor.getEmail()), "doctor");
+        check("findSummaryPageAfter", () -> doctorRepository.findSummaryPageAfter(doctor.getId(), PageRequest.of(0, 10)), "doctor");
+        check("findByStatus", () -> doctorRepository.findByStatus(Doctor.ProfileStatus.SUSPENDED), "doctor");
+        check("findByUserId", () -> doctorRepository.findByUserId(100L), "doctor");
+        check("findBySpecializationAndStatus",
+                () -> doctorRepository.findBySpecializationAndStatus("Cardio", Doctor.ProfileStatus.SUSPENDED), "doctor");
+        check("countByStatus", () -> doctorRepository.countByStatus(Doctor.ProfileStatus.SUSPENDED), "doctor");
+        check("findActiveSpecializations", () -> doctorRepository.findActiveSpecializations(), "doctor");
+        check("findActiveClinicNames", () -> doctorRepository.findActiveClinicNames(), "doctor");
+
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+
+    @Test
+    void testDoctorAvailabilityRepositoryQueriesUseIndexes() {
+        check("findByDoctorAndIsActive", () -> availabilityRepository.findByDoctorAndIsActive(doctor, true), "doctor_availability");
+        check("findByDoctor", () -> availabilityRepository.findByDoctor(doctor), "doctor_availability");
+        check("findByDoctorAndDayOfWeek",
+                () -> availabilityRepository.findByDoctorAndDayOfWeek(doctor, "MONDAY"), "doctor_availability");
+        check("findActiveAvailabilityByDoctorId",
+                () -> availabilityRepository.findActiveAvailabilityByDoctorId(doctor.getId()), "doctor_availability");
+        check("existsByDoctorAndDayOfWeek",
+                () -> availabilityRepository.existsByDoctorAndDayOfWeek(doctor, "MONDAY"), "doctor_availability");
+        check("findByDayOfWeekAndIsActive",
+                () -> availabilityRepository.findByDayOfWeekAndIsActive("SUNDAY", true), "doctor_availability");
+
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+
+    // Runs the repository call, EXPLAINs every statement it issued and records a failure
+    // if any of the given tables is read with a full scan
+    private void check(String query, Runnable call, String... tables) {
+        SqlCapture.start();
+        try {
+            call.run();
+        } finally {
+            List<String> statements = SqlCapture.stop();
+            if (statements.isEmpty()) {
+                failures.add(query + ": issued no SQL");
+                return;
+            }
+            for (String statement : statements) {
+                String plan = explain(statement);
+                for (String table : tables) {
+                    if (plan.contains("public." + table + ".tablescan")) {
+                        failures.add(query + ": full scan of " + table + "\n  " + plan);
+                    }
+                }
+            }
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                // H2 picks the plan from which indexes can serve each predicate, not from the bound values
+                int parameters = explain.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    explain.setObject(i, null);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = explain.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append(' ');
+                    }
+                }
+                return plan.toString().replace("\"", "").replaceAll("\\s+", " ").toLowerCase();
+            }
+        });
+    }
+
+    private void inRolledBackTransaction(Runnable work) {
+        transactionTemplate.executeWithoutResult(status -> {
+            work.run();
+            status.setRollbackOnly();
+        });
+    }
+}
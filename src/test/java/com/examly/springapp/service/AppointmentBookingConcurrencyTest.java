@@ -0,0 +1,137 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.*;
+import com.examly.springapp.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class AppointmentBookingConcurrencyTest {
+    private static final int DOCTORS = 5;
+    private static final int SLOTS_PER_DOCTOR = 4;
+    private static final int ATTEMPTS_PER_SLOT = 100;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Patient> patients = new ArrayList<>();
+    private final List<Doctor> doctors = new ArrayList<>();
+    private final LocalDate date = LocalDate.now().plusDays(7);
+
+    @BeforeEach
+    void setup() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+        slotOccupancyIndex.clear();
+        patients.clear();
+        doctors.clear();
+        for (int i = 0; i < 20; i++) {
+            patients.add(patientRepository.save(Patient.builder().name("Patient " + i).email("patient" + i + "@example.com")
+                    .phoneNumber("1234567890").dateOfBirth(LocalDate.of(1990, 1, 1)).build()));
+        }
+        for (int i = 0; i < DOCTORS; i++) {
+            doctors.add(doctorRepository.save(Doctor.builder().name("Dr. Load " + i).specialization("Cardiology")
+                    .email("load" + i + "@hospital.com").phoneNumber("9876543210").build()));
+        }
+    }
+
+    @Test
+    void testConcurrentBookingsHaveExactlyOneWinnerPerSlot() throws Exception {
+        Map<String, AtomicInteger> winners = new ConcurrentHashMap<>();
+        AtomicInteger unexpectedErrors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int attempt = 0; attempt < ATTEMPTS_PER_SLOT; attempt++) {
+            for (Doctor doctor : doctors) {
+                for (int slot = 0; slot < SLOTS_PER_DOCTOR; slot++) {
+                    LocalTime time = LocalTime.of(9, 0).plusMinutes(30L * slot);
+                    Long patientId = patients.get((attempt + slot) % patients.size()).getId();
+                    String key = doctor.getId() + "@" + time;
+                    futures.add(pool.submit(() -> {
+                        start.await();
+                        try {
+                            appointmentService.bookAppointment(patientId, doctor.getId(), date, time, "Stress test booking");
+                            winners.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                        } catch (IllegalStateException e) {
+                            // lost the race for this slot, expected
+                        } catch (Exception e) {
+                            unexpectedErrors.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+            }
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(0, unexpectedErrors.get());
+        assertEquals(DOCTORS * SLOTS_PER_DOCTOR, winners.size());
+        winners.forEach((slot, count) -> assertEquals(1, count.get(), "winners for " + slot));
+        assertEquals(DOCTORS * SLOTS_PER_DOCTOR, appointmentRepository.count());
+    }
+
+    @Test
+    void testCancelledAppointmentFreesSlot() {
+        Doctor doctor = doctors.get(0);
+        LocalTime time = LocalTime.of(11, 0);
+        Appointment first = appointmentService.bookAppointment(patients.get(0).getId(), doctor.getId(), date, time, "First booking");
+        assertThrows(IllegalStateException.class,
+                () -> appointmentService.bookAppointment(patients.get(1).getId(), doctor.getId(), date, time, "Second booking"));
+
+        appointmentService.cancelAppointment(first.getId(), patients.get(0).getEmail(), false);
+
+        Appointment second = appointmentService.bookAppointment(patients.get(1).getId(), doctor.getId(), date, time, "Second booking");
+        assertNotNull(second.getId());
+    }
+
+    @Test
+    void testCancellationOnAnotherNodeFreesSlot() {
+        Doctor doctor = doctors.get(0);
+        LocalTime time = LocalTime.of(14, 0);
+        Appointment first = appointmentService.bookAppointment(patients.get(0).getId(), doctor.getId(), date, time, "First booking");
+
+        // Cancelled straight in the database, the way another node's cancellation looks to this node's index
+        transactionTemplate.executeWithoutResult(status -> appointmentRepository.cancelAll(List.of(first.getId())));
+
+        Appointment second = appointmentService.bookAppointment(patients.get(1).getId(), doctor.getId(), date, time, "Second booking");
+        assertNotNull(second.getId());
+    }
+}
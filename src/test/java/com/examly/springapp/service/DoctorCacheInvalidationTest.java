@@ -0,0 +1,121 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.*;
+import com.examly.springapp.repository.*;
+import com.examly.springapp.service.DoctorService.AvailabilityRequest;
+import com.examly.springapp.service.DoctorService.AvailabilityRequest.AvailabilitySlot;
+import com.examly.springapp.service.DoctorService.UpdateMyProfileRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Doctor and weekly availability reads are served from the second-level and query cache,
+ * and the DoctorService/AvailabilityService write paths leave no stale entry behind.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class DoctorCacheInvalidationTest {
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private AvailabilityService availabilityService;
+    @Autowired
+    private EntityCacheMetrics entityCacheMetrics;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private DoctorAvailabilityRepository availabilityRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Doctor doctor;
+
+    @BeforeEach
+    void setup() {
+        waitlistRepository.deleteAll();
+        appointmentRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        doctorRepository.deleteAll();
+        doctor = doctorRepository.save(Doctor.builder().name("Dr. Cache").specialization("Cardiology")
+                .clinicName("City Clinic").email("cache@hospital.com").phoneNumber("9876543210").build());
+    }
+
+    @Test
+    void testRepeatedDoctorReadsIssueNoSql() {
+        doctorService.getDoctorByEmail(doctor.getEmail());
+        doctorService.getDoctorById(doctor.getId());
+
+        assertEquals(0, statementsFor(() -> doctorService.getDoctorByEmail(doctor.getEmail())));
+        assertTrue(regionHits("doctor_queries") > 0);
+        assertEquals(0, statementsFor(() -> doctorService.getDoctorById(doctor.getId())));
+        assertTrue(regionHits("doctor") > 0);
+    }
+
+    @Test
+    void testProfileUpdateIsVisibleToCachedLookups() {
+        assertEquals("Dr. Cache", doctorService.getDoctorByEmail(doctor.getEmail()).getName());
+        assertEquals("Dr. Cache", doctorService.getDoctorById(doctor.getId()).getName());
+
+        UpdateMyProfileRequest request = new UpdateMyProfileRequest();
+        request.setName("Dr. Renamed");
+        doctorService.updateMyProfile(doctor.getEmail(), request);
+
+        assertEquals("Dr. Renamed", doctorService.getDoctorByEmail(doctor.getEmail()).getName());
+        assertEquals("Dr. Renamed", doctorService.getDoctorById(doctor.getId()).getName());
+    }
+
+    @Test
+    void testAvailabilityUpdateReplacesCachedSchedule() {
+        doctorService.setDoctorAvailability(doctor.getId(), weekly("MONDAY", "09:00"));
+        assertEquals(List.of("09:00"), slotsOf(doctorService.getDoctorAvailability(doctor.getId())));
+        assertEquals(0, statementsFor(() -> doctorService.getDoctorAvailability(doctor.getId())));
+
+        // Same day again: the old row has to be gone before the new one is inserted
+        doctorService.setDoctorAvailability(doctor.getId(), weekly("MONDAY", "10:00"));
+        assertEquals(List.of("10:00"), slotsOf(doctorService.getDoctorAvailability(doctor.getId())));
+
+        availabilityService.setDoctorAvailability(doctor.getId().toString(),
+                List.of(new AvailabilityService.AvailabilityData("MONDAY", List.of("11:00"), true)));
+        assertEquals(List.of("11:00"), slotsOf(doctorService.getDoctorAvailability(doctor.getId())));
+
+        availabilityService.deleteDoctorAvailability(doctor.getId().toString());
+        assertTrue(doctorService.getDoctorAvailability(doctor.getId()).isEmpty());
+    }
+
+    private static AvailabilityRequest weekly(String day, String slot) {
+        return new AvailabilityRequest(null, List.of(new AvailabilitySlot(day, day, List.of(slot), true)));
+    }
+
+    private static List<String> slotsOf(List<DoctorAvailability> availability) {
+        return availability.stream().flatMap(a -> a.getTimeSlots().stream()).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private long regionHits(String region) {
+        Map<String, Map<String, Object>> regions = (Map<String, Map<String, Object>>) entityCacheMetrics.metrics().get("regions");
+        return (Long) regions.get(region).get("hits");
+    }
+
+    // Statistics are cleared first, so region counts read afterwards cover this call only
+    private long statementsFor(Runnable call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,92 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.*;
+import com.examly.springapp.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class DoctorStatsQueryBudgetTest {
+    // Doctor count, specializations, active doctors, appointment count
+    private static final long QUERY_BUDGET = 4;
+
+    @Autowired
+    private DoctorStatsService doctorStatsService;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Patient patient;
+
+    @BeforeEach
+    void setup() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patient = patientRepository.save(Patient.builder().name("Budget Patient").email("budget@example.com")
+                .phoneNumber("1234567890").dateOfBirth(LocalDate.of(1990, 1, 1)).build());
+    }
+
+    @Test
+    void testDoctorStatsQueryCountDoesNotGrowWithDoctors() {
+        addDoctors(0, 3);
+        long fewDoctors = statementsFor(() -> doctorStatsService.doctorStats());
+
+        addDoctors(3, 40);
+        long manyDoctors = statementsFor(() -> doctorStatsService.doctorStats());
+
+        assertTrue(fewDoctors <= QUERY_BUDGET, "doctor stats used " + fewDoctors + " statements");
+        assertEquals(fewDoctors, manyDoctors, "statement count must not depend on the number of doctors");
+    }
+
+    @Test
+    void testDoctorStatsValues() {
+        addDoctors(0, 4);
+        Map<String, Object> stats = doctorStatsService.doctorStats();
+
+        assertEquals(4L, stats.get("totalDoctors"));
+        assertEquals(4L, stats.get("activeDoctors"));
+        assertEquals(2.0, stats.get("avgAppointmentsPerDoctor"));
+        @SuppressWarnings("unchecked")
+        Map<String, Long> bySpecialization = (Map<String, Long>) stats.get("specializationDistribution");
+        assertEquals(2L, bySpecialization.get("Cardiology"));
+        assertEquals(2L, bySpecialization.get("Neurology"));
+    }
+
+    // Two appointments per doctor, specializations alternate
+    private void addDoctors(int from, int to) {
+        for (int i = from; i < to; i++) {
+            Doctor doctor = doctorRepository.save(Doctor.builder().name("Dr. Budget " + i)
+                    .specialization(i % 2 == 0 ? "Cardiology" : "Neurology")
+                    .email("budget" + i + "@hospital.com").phoneNumber("9876543210").build());
+            for (int n = 0; n < 2; n++) {
+                appointmentRepository.save(Appointment.builder().patient(patient).doctor(doctor)
+                        .appointmentDate(LocalDate.now().plusDays(n)).appointmentTime(LocalTime.of(9 + n, 0))
+                        .reason("Follow-up").status(AppointmentStatus.SCHEDULED).build());
+            }
+        }
+    }
+
+    private long statementsFor(Runnable call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,138 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.AppointmentDto;
+import com.examly.springapp.dto.DoctorDto;
+import com.examly.springapp.model.*;
+import com.examly.springapp.repository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bytes on the wire and columns read per request for the list endpoints, entity graphs
+ * (what the lists used to return) against the constructor-expression projections.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ListProjectionFootprintTest {
+    private static final int DOCTORS = 5;
+    private static final int APPOINTMENTS_PER_DOCTOR = 30;
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setup() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+        Patient patient = patientRepository.save(Patient.builder().name("Footprint Patient").email("footprint@example.com")
+                .phoneNumber("1234567890").dateOfBirth(LocalDate.of(1990, 1, 1)).build());
+        for (int i = 0; i < DOCTORS; i++) {
+            Doctor doctor = doctorRepository.save(Doctor.builder().name("Dr. Footprint " + i).specialization("Cardiology")
+                    .clinicName("City Clinic").email("footprint" + i + "@hospital.com").phoneNumber("9876543210")
+                    .address("12 Long Street, Springfield").experienceYears(12).consultationFee(200.0)
+                    .bio("Consultant cardiologist with an interest in preventive care and cardiac rehabilitation.")
+                    .qualifications("MBBS, MD (Internal Medicine), DM (Cardiology), FACC").build());
+            for (int n = 0; n < APPOINTMENTS_PER_DOCTOR; n++) {
+                appointmentRepository.save(Appointment.builder().patient(patient).doctor(doctor)
+                        .appointmentDate(LocalDate.now().plusDays(n + 1)).appointmentTime(LocalTime.of(9, 0))
+                        .reason("Follow-up").status(AppointmentStatus.SCHEDULED).build());
+            }
+        }
+    }
+
+    @Test
+    void testAppointmentProjectionIsSmallerThanEntityGraph() throws Exception {
+        int rows = DOCTORS * APPOINTMENTS_PER_DOCTOR;
+        Footprint entities = measure(() -> appointmentRepository.findAllWithDetails());
+        Footprint projections = measure(() -> appointmentService.getAppointmentsPage(null, rows).items());
+
+        assertTrue(projections.bytes() < entities.bytes(), "projection response is not smaller");
+        assertTrue(projections.columns() < entities.columns(),
+                "projection reads " + projections.columns() + " columns, entity graph " + entities.columns());
+        assertEquals(1, projections.statements(), "projection page is not a single query");
+    }
+
+    @Test
+    void testDoctorProjectionIsSmallerThanEntity() throws Exception {
+        Footprint entities = measure(() -> doctorRepository.findAll());
+        Footprint projections = measure(() -> doctorService.getDoctorsPage(null, DOCTORS).items());
+
+        assertTrue(projections.bytes() < entities.bytes(), "projection response is not smaller");
+        assertTrue(projections.columns() < entities.columns(),
+                "projection reads " + projections.columns() + " columns, entity " + entities.columns());
+    }
+
+    @Test
+    void testProjectionCarriesWhatTheListShows() {
+        List<AppointmentDto> page = appointmentService.getAppointmentsPage(null, 1).items();
+        assertEquals(1, page.size());
+        assertEquals("Footprint Patient", page.get(0).patient().name());
+        assertEquals("Cardiology", page.get(0).doctor().specialization());
+        assertNotNull(page.get(0).createdAt());
+
+        DoctorDto doctor = doctorService.getDoctorsPage(null, 1).items().get(0);
+        assertEquals("City Clinic", doctor.clinicName());
+        assertEquals(200.0, doctor.consultationFee());
+        assertEquals(12, doctor.experienceYears());
+        assertEquals(Doctor.ProfileStatus.ACTIVE, doctor.status());
+    }
+
+    private record Footprint(long bytes, int statements, int columns) {}
+
+    // Serialized size of one response, and the statements and selected columns it took to load and serialize it
+    private Footprint measure(Callable<List<?>> load) throws Exception {
+        SqlCapture.start();
+        List<String> statements;
+        long bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(load.call()).length;
+        } finally {
+            statements = SqlCapture.stop();
+        }
+        int columns = statements.stream().mapToInt(ListProjectionFootprintTest::selectedColumns).sum();
+        return new Footprint(bytes, statements.size(), columns);
+    }
+
+    // Entries in the outermost select list of a statement
+    private static int selectedColumns(String sql) {
+        String lower = sql.toLowerCase();
+        int depth = 0;
+        int columns = 1;
+        for (int i = lower.indexOf("select") + "select".length(); i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && c == ',') {
+                columns++;
+            } else if (depth == 0 && Character.isWhitespace(c) && lower.startsWith("from", i + 1)
+                    && i + 5 < lower.length() && Character.isWhitespace(lower.charAt(i + 5))) {
+                break;
+            }
+        }
+        return columns;
+    }
+}
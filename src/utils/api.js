@@ -111,4 +111,18 @@ api.interceptors.response.use(
   }
 );
 
+// List endpoints (/api/appointments, /api/appointments/my/doctor, /api/patients, /api/patients/my,
+// /api/doctors) return one keyset page at a time: { items, nextCursor, size }.
+// Follows nextCursor until the last page and resolves like api.get, with every row in data.
+export const getAllPages = async (url) => {
+  const items = [];
+  let cursor = null;
+  do {
+    const response = await api.get(url, { params: cursor ? { cursor, limit: 200 } : { limit: 200 } });
+    items.push(...(response.data?.items || []));
+    cursor = response.data?.nextCursor;
+  } while (cursor);
+  return { data: items };
+};
+
 export default api;
\ No newline at end of file